@@ -0,0 +1,54 @@
+package benchmark;
+
+import camera.CameraActivity;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.Mat;
+
+/**
+ * Benchmark for the activity measurement of CameraActivity.addActivities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ActivityBenchmark {
+
+    private CameraActivity activity;
+    private int counter;
+
+    /**
+     * Create a started activity that stores every measurement.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        activity = new CameraActivity();
+        activity.setStarted(true);
+        counter = Integer.MAX_VALUE / 2;
+    }
+
+    /**
+     * Measure the activity in the next frame.
+     * @param frames The frames of the benchmark.
+     * @return The activity of the whole frame.
+     */
+    @Benchmark
+    public double addActivities(final BenchmarkFrames frames) {
+        Mat frame = frames.next();
+        activity.divideFrame(frame);
+        activity.addActivities(frame, counter++);
+        return activity.getLastActivity();
+    }
+}
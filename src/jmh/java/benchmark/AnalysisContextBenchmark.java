@@ -0,0 +1,94 @@
+package benchmark;
+
+import camera.AnalysisContext;
+import camera.Camera;
+import camera.CameraActivity;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.videoio.VideoCapture;
+
+/**
+ * Benchmark for the activity measurement and chest detection of one frame,
+ * with a subtraction for each of them or with the foreground shared in an AnalysisContext.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnalysisContextBenchmark {
+
+    private Camera camera;
+    private int counter;
+
+    /**
+     * Create a camera with a started activity that stores every measurement.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        camera = new Camera(new VideoCapture(), BenchmarkFrames.VIDEO_LINK);
+        camera.getActivity().setStarted(true);
+        counter = Integer.MAX_VALUE / 2;
+    }
+
+    /**
+     * Measure the activity and detect chests with a subtraction for each of them.
+     * @param frames The frames of the benchmark.
+     * @return The amount of chests found.
+     */
+    @Benchmark
+    public int separate(final BenchmarkFrames frames) {
+        Mat frame = frames.next();
+        CameraActivity activity = camera.getActivity();
+        activity.divideFrame(frame);
+        activity.addActivities(frame, counter++);
+
+        Mat subtraction = camera.getMatPool().borrow(frame.rows(), frame.cols(), CvType.CV_8UC1);
+        camera.getChestDetector().subtractFrame(frame, subtraction);
+        int found = release(camera.getChestDetector()
+            .checkForChests(frame, frame, camera, subtraction));
+        camera.getMatPool().recycle(subtraction);
+        return found;
+    }
+
+    /**
+     * Measure the activity and detect chests with the foreground shared.
+     * @param frames The frames of the benchmark.
+     * @return The amount of chests found.
+     */
+    @Benchmark
+    public int shared(final BenchmarkFrames frames) {
+        Mat frame = frames.next();
+        AnalysisContext context = new AnalysisContext(camera, frame);
+        camera.getActivity().addActivities(context, counter++);
+        int found = release(camera.getChestDetector().checkForChests(context, frame));
+        context.release();
+        return found;
+    }
+
+    /**
+     * Release the cutouts of the found chests.
+     * @param chests The cutouts.
+     * @return The amount of chests.
+     */
+    private int release(final List<Mat> chests) {
+        for (Mat chest : chests) {
+            chest.release();
+        }
+        return chests.size();
+    }
+}
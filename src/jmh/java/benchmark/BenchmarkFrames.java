@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.videoio.VideoCapture;
+
+/**
+ * The frames the benchmarks run on, either replayed from a video or synthetic.
+ * All frames are loaded before the measurement, so decoding is not measured.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkFrames {
+
+    /**
+     * The video that is replayed.
+     */
+    public static final String VIDEO_LINK = "files" + File.separator + "postit.mov";
+    private static final int FRAME_COUNT = 32;
+    private static final Scalar BACKGROUND = new Scalar(90, 90, 90);
+    private static final Scalar CHEST_COLOUR = new Scalar(0, 170, 200);
+    private static final double NOISE = 20;
+    private static final int CHEST_PARTS = 10;
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Where the frames come from, the video or synthetic frames with a moving chest.
+     */
+    @Param({"synthetic", "video"})
+    public String source;
+
+    /**
+     * The resolution of the frames as width x height.
+     */
+    @Param({"640x480", "1280x720", "1920x1080"})
+    public String resolution;
+
+    private List<Mat> frames = new ArrayList<>();
+    private int index;
+
+    /**
+     * Load the frames.
+     */
+    @Setup(Level.Trial)
+    public void load() {
+        String[] dimensions = resolution.split("x");
+        Size size = new Size(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        if ("video".equals(source)) {
+            loadVideo(size);
+        } else {
+            loadSynthetic(size);
+        }
+        if (frames.isEmpty()) {
+            throw new IllegalStateException("No frames could be loaded from " + VIDEO_LINK);
+        }
+    }
+
+    /**
+     * Load the first frames of the video, resized to the resolution.
+     * @param size The resolution.
+     */
+    private void loadVideo(final Size size) {
+        VideoCapture capture = new VideoCapture(VIDEO_LINK);
+        Mat frame = new Mat();
+        while (frames.size() < FRAME_COUNT && capture.read(frame) && !frame.empty()) {
+            Mat resized = new Mat();
+            Imgproc.resize(frame, resized, size);
+            frames.add(resized);
+        }
+        capture.release();
+    }
+
+    /**
+     * Create noisy frames with a chest coloured rectangle moving over them.
+     * @param size The resolution.
+     */
+    private void loadSynthetic(final Size size) {
+        Mat noise = new Mat((int) size.height, (int) size.width, CvType.CV_8UC3);
+        double chestWidth = size.width / CHEST_PARTS;
+        double chestHeight = size.height / CHEST_PARTS;
+        double step = (size.width - chestWidth) / FRAME_COUNT;
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            Mat frame = new Mat(noise.size(), noise.type(), BACKGROUND);
+            Core.randn(noise, 0, NOISE);
+            Core.add(frame, noise, frame);
+            Point topLeft = new Point(i * step, chestHeight);
+            Point bottomRight = new Point(i * step + chestWidth, 2 * chestHeight);
+            Imgproc.rectangle(frame, topLeft, bottomRight, CHEST_COLOUR, Core.FILLED);
+            frames.add(frame);
+        }
+    }
+
+    /**
+     * Get the next frame, after the last frame the first frame is returned again.
+     * @return The frame, which should not be changed.
+     */
+    public Mat next() {
+        Mat frame = frames.get(index);
+        index = (index + 1) % frames.size();
+        return frame;
+    }
+
+    /**
+     * Release the frames.
+     */
+    @TearDown(Level.Trial)
+    public void release() {
+        for (Mat frame : frames) {
+            frame.release();
+        }
+        frames.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import camera.Camera;
+import camera.CameraChestDetector;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.videoio.VideoCapture;
+
+/**
+ * Benchmark for the chest detection of CameraChestDetector.checkForChests.
+ * The whole frame counts as moving, so every frame goes through the full detection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChestDetectorBenchmark {
+
+    private static final double WHITE = 255;
+    private Camera camera;
+    private CameraChestDetector detector;
+    private Mat subtraction;
+
+    /**
+     * Create the camera and the subtraction.
+     * @param frames The frames of the benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final BenchmarkFrames frames) {
+        camera = new Camera(new VideoCapture(), BenchmarkFrames.VIDEO_LINK);
+        detector = camera.getChestDetector();
+        Mat frame = frames.next();
+        subtraction = new Mat(frame.rows(), frame.cols(), CvType.CV_8UC1, new Scalar(WHITE));
+    }
+
+    /**
+     * Check the next frame for chests.
+     * @param frames The frames of the benchmark.
+     * @return The amount of chests found.
+     */
+    @Benchmark
+    public int checkForChests(final BenchmarkFrames frames) {
+        List<Mat> chests = detector.checkForChests(frames.next(), camera, subtraction);
+        for (Mat chest : chests) {
+            chest.release();
+        }
+        return chests.size();
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import camera.CameraChestTracker;
+import camera.MatPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Benchmark for the tracking of chest candidates of CameraChestTracker.trackChests.
+ * The black and white candidate frames are made before the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChestTrackerBenchmark {
+
+    private static final double MIN_CHEST_AREA = 550;
+    private static final int FRAME_COUNT = 32;
+    private static final Scalar CHEST_COLOUR_LOWER = new Scalar(17, 120, 80);
+    private static final Scalar CHEST_COLOUR_UPPER = new Scalar(35, 255, 205);
+    private MatPool pool = new MatPool();
+    private CameraChestTracker tracker = new CameraChestTracker(pool);
+    private Mat[] candidates = new Mat[FRAME_COUNT];
+    private int index;
+
+    /**
+     * Make black and white candidate frames of the chest coloured areas of the frames.
+     * @param frames The frames of the benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final BenchmarkFrames frames) {
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            Mat hsv = new Mat();
+            Imgproc.cvtColor(frames.next(), hsv, Imgproc.COLOR_BGR2HSV);
+            candidates[i] = new Mat();
+            Core.inRange(hsv, CHEST_COLOUR_LOWER, CHEST_COLOUR_UPPER, candidates[i]);
+            hsv.release();
+        }
+    }
+
+    /**
+     * Track the chests in the next candidate frame.
+     * @return The amount of pixels left after tracking.
+     */
+    @Benchmark
+    public int trackChests() {
+        Mat tracked = tracker.trackChests(candidates[index], MIN_CHEST_AREA);
+        index = (index + 1) % FRAME_COUNT;
+        int pixels = Core.countNonZero(tracked);
+        pool.recycle(tracked);
+        return pixels;
+    }
+
+    /**
+     * Release the candidate frames.
+     */
+    @TearDown(Level.Trial)
+    public void release() {
+        for (Mat candidate : candidates) {
+            candidate.release();
+        }
+        pool.clear();
+    }
+}
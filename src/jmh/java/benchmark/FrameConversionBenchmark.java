@@ -0,0 +1,33 @@
+package benchmark;
+
+import gui.Util;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the conversion of frames to images of Util.matToBufferedImage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FrameConversionBenchmark {
+
+    /**
+     * Convert the next frame to a BufferedImage.
+     * @param frames The frames of the benchmark.
+     * @return The image.
+     */
+    @Benchmark
+    public BufferedImage matToBufferedImage(final BenchmarkFrames frames) {
+        return Util.matToBufferedImage(frames.next());
+    }
+}
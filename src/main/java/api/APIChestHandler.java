@@ -31,14 +31,7 @@ public class APIChestHandler extends AbstractHandler {
         if (request.getParameter("opened") == null) {
             body = "Parameter opened not found in request";
         } else if (request.getParameter("opened").equals("true")) {
-            if (room.getChestList().size() == room.getChestsOpened()) {
-                body = "All chests are already opened";
-            } else {
-                room.setNextChestOpened(System.nanoTime());
-                String log = room.getChestsOpened() + "/" + room.getChestList().size();
-                body = "Found chest " + log;
-                room.getInformationHandler().addInformation(body);
-            }
+            body = room.transition(this::openNextChest);
         }
 
         response.setStatus(HttpServletResponse.SC_OK);
@@ -48,4 +41,20 @@ public class APIChestHandler extends AbstractHandler {
         out.write(body);
         out.close();
     }
+
+    /**
+     * Open the next chest, unless all chests are opened already.
+     * Runs as one transition of the room,
+     * so concurrent calls each see the result of the one before.
+     * @return the response.
+     */
+    private String openNextChest() {
+        if (room.getChestList().size() == room.getChestsOpened()) {
+            return "All chests are already opened";
+        }
+        room.setNextChestOpened(System.nanoTime());
+        String body = "Found chest " + room.getChestsOpened() + "/" + room.getChestList().size();
+        room.getInformationHandler().addInformation(body);
+        return body;
+    }
 }
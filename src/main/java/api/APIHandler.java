@@ -1,12 +1,17 @@
 package api;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ContextHandler;
-import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import room.Room;
 
 /**
  * Class for the APIHandler.
+ * A handler for a single room serves its API at the root, a handler for several rooms
+ * serves the API of every room under /rooms/{id}.
  */
 public class APIHandler {
 
@@ -14,7 +19,8 @@ public class APIHandler {
      * The default port.
      */
     public static final int DEFAULT_PORT = 8080;
-    private Room room;
+    private List<Room> rooms;
+    private boolean multipleRooms;
     private Server server;
 
     /**
@@ -22,10 +28,21 @@ public class APIHandler {
      * @param newRoom the room for this handler.
      */
     public APIHandler(final Room newRoom) {
-        room = newRoom;
+        rooms = Collections.singletonList(newRoom);
         setServer(DEFAULT_PORT);
     }
 
+    /**
+     * Constructor of an APIHandler that serves the API of several rooms on one port.
+     * @param newRooms the rooms for this handler.
+     * @param port the port number.
+     */
+    public APIHandler(final List<Room> newRooms, final int port) {
+        rooms = new ArrayList<>(newRooms);
+        multipleRooms = true;
+        setServer(port);
+    }
+
     /**
      * Set the server with a port number.
      * @param port the (new) port number
@@ -33,18 +50,43 @@ public class APIHandler {
     public void setServer(final int port) {
         server = new Server(port);
 
-        ContextHandler handler = new ContextHandler("/chest");
+        ContextHandlerCollection collection = new ContextHandlerCollection();
+        for (Room room : rooms) {
+            String prefix = "";
+            if (multipleRooms) {
+                prefix = "/rooms/" + room.getId();
+            }
+            addHandlers(collection, room, prefix);
+        }
+
+        server.setHandler(collection);
+    }
+
+    /**
+     * Add the handlers of the API of a room to a collection.
+     * @param collection the collection.
+     * @param room the room.
+     * @param prefix the path the API of the room is served under.
+     */
+    private void addHandlers(final ContextHandlerCollection collection, final Room room,
+                             final String prefix) {
+        ContextHandler handler = new ContextHandler(prefix + "/chest");
         handler.setHandler(new APIChestHandler(room));
         //For more handlers, create like above two lines and add handler to collection below.
 
-        ContextHandler sectionHandler = new ContextHandler("/section");
+        ContextHandler sectionHandler = new ContextHandler(prefix + "/section");
         sectionHandler.setHandler(new APISectionHandler(room));
 
-        HandlerCollection collection = new HandlerCollection();
+        ContextHandler metricsHandler = new ContextHandler(prefix + "/metrics");
+        metricsHandler.setHandler(new APIMetricsHandler(room));
+
+        ContextHandler statusHandler = new ContextHandler(prefix + "/status");
+        statusHandler.setHandler(new APIStatusHandler(room));
+
         collection.addHandler(handler);
         collection.addHandler(sectionHandler);
-
-        server.setHandler(collection);
+        collection.addHandler(metricsHandler);
+        collection.addHandler(statusHandler);
     }
 
     /**
@@ -0,0 +1,44 @@
+package api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import room.Room;
+
+/**
+ * Handler for /metrics API calls, which returns the latencies of the frame path as JSON.
+ */
+public class APIMetricsHandler extends AbstractHandler {
+
+    private Room room;
+
+    /**
+     * Constructor for the APIMetricsHandler.
+     * @param newRoom the room for this handler.
+     */
+    public APIMetricsHandler(final Room newRoom) {
+        room = newRoom;
+    }
+
+    @Override
+    public void handle(final String s, final Request request, final HttpServletRequest httpRequest,
+                       final HttpServletResponse response) throws IOException {
+        String body = "{}";
+        if (room.getMetricsHandler() != null) {
+            body = room.getMetricsHandler().toJson().toJSONString();
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json;charset=UTF-8");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(bytes.length);
+
+        OutputStream out = response.getOutputStream();
+        out.write(bytes);
+        out.close();
+    }
+}
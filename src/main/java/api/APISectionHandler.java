@@ -31,14 +31,7 @@ public class APISectionHandler extends AbstractHandler {
         if (request.getParameter("completed") == null) {
             body = "Parameter completed not found in request";
         } else if (request.getParameter("completed").equals("true")) {
-            if (room.getChestList().size() == room.getChestsOpened()) {
-                body = "All chests are already opened";
-            } else {
-                room.setNextSectionOpened();
-                String log = room.calculateSubsectionsDone() + "/" + room.getTotalSubsections();
-                body = "Completed section " + log;
-                room.getInformationHandler().addInformation(body);
-            }
+            body = room.transition(this::completeNextSection);
         }
 
         response.setStatus(HttpServletResponse.SC_OK);
@@ -48,4 +41,20 @@ public class APISectionHandler extends AbstractHandler {
         out.write(body);
         out.close();
     }
+
+    /**
+     * Complete the next section, unless all chests are opened already.
+     * The check, the change and the count in the response form one transition of the room.
+     * @return the response.
+     */
+    private String completeNextSection() {
+        if (room.getChestList().size() == room.getChestsOpened()) {
+            return "All chests are already opened";
+        }
+        room.setNextSectionOpened();
+        String log = room.calculateSubsectionsDone() + "/" + room.getTotalSubsections();
+        String body = "Completed section " + log;
+        room.getInformationHandler().addInformation(body);
+        return body;
+    }
 }
@@ -0,0 +1,48 @@
+package api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import room.Room;
+import room.RoomStatus;
+
+/**
+ * Handler for /status API calls, which returns the last published state of the room as JSON.
+ * Only the immutable snapshot is read, so polling never touches the room while it is updated.
+ */
+public class APIStatusHandler extends AbstractHandler {
+
+    private Room room;
+
+    /**
+     * Constructor for the APIStatusHandler.
+     * @param newRoom the room for this handler.
+     */
+    public APIStatusHandler(final Room newRoom) {
+        room = newRoom;
+    }
+
+    @Override
+    public void handle(final String s, final Request request, final HttpServletRequest httpRequest,
+                       final HttpServletResponse response) throws IOException {
+        String body = "{}";
+        RoomStatus status = room.getStatus();
+        if (status != null) {
+            body = status.toJson();
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(bytes.length);
+
+        OutputStream out = response.getOutputStream();
+        out.write(bytes);
+        out.close();
+    }
+}
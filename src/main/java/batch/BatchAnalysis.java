@@ -0,0 +1,200 @@
+package batch;
+
+import camera.CameraConfig;
+import handlers.JsonHandler;
+import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
+import room.Room;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Headless analysis of recorded videos of a room, without the user interface.
+ * The frames are analysed as fast as they can be decoded instead of in real time,
+ * and a timeline of the activity and the chest detections is written to a file.
+ * The videos are split in segments that are analysed in parallel on a fork-join pool,
+ * after which the segments of all cameras are merged in the order of the frames.
+ * The activity and chests found in a segment are approximate, see SegmentAnalysis.
+ */
+public class BatchAnalysis {
+
+    /**
+     * The default length of a segment in seconds.
+     */
+    public static final int DEFAULT_SEGMENT_SECONDS = 120;
+    private static final String USAGE = "Usage: BatchAnalysis [--threads n] [--segment seconds] "
+        + "<config.json> <timeline.csv> [video ...]";
+    private static final double NANOS = 1e9;
+    private List<CameraConfig> configs = new ArrayList<>();
+    private List<Integer> frameCounts = new ArrayList<>();
+    private List<Double> frameRates = new ArrayList<>();
+    private int chests;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int segmentSeconds = DEFAULT_SEGMENT_SECONDS;
+
+    /**
+     * Constructor for the batch analysis of the first room of a config file.
+     * @param configFile The config file of the room.
+     * @param videos The videos that replace the links of the cameras, in order.
+     */
+    public BatchAnalysis(final String configFile, final List<String> videos) {
+        Room room = new JsonHandler(configFile).createSingleRoom();
+        chests = room.getChestList().size();
+        configs.addAll(room.getCameraConfigs());
+        for (int i = configs.size(); i < videos.size(); i++) {
+            configs.add(new CameraConfig(videos.get(i)));
+        }
+        for (int i = 0; i < configs.size(); i++) {
+            if (i < videos.size()) {
+                configs.get(i).setLink(videos.get(i));
+            }
+            probe(configs.get(i).getLink());
+        }
+    }
+
+    /**
+     * Read the amount of frames and the frame rate of a video.
+     * @param link The link of the video.
+     */
+    private void probe(final String link) {
+        VideoCapture capture = new VideoCapture();
+        if (!capture.open(link)) {
+            throw new IllegalArgumentException("Could not open " + link);
+        }
+        frameCounts.add((int) capture.get(Videoio.CAP_PROP_FRAME_COUNT));
+        frameRates.add(capture.get(Videoio.CAP_PROP_FPS));
+        capture.release();
+    }
+
+    /**
+     * Analyse the videos and write the timeline to a file.
+     * @param args The options, the config file, the timeline file and optionally the videos.
+     */
+    public static void main(final String[] args) {
+        int options = 0;
+        while (options + 1 < args.length && args[options].startsWith("--")) {
+            options += 2;
+        }
+        if (args.length - options < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+        loadLibraries();
+        List<String> videos = Arrays.asList(args).subList(options + 2, args.length);
+        BatchAnalysis analysis = new BatchAnalysis(args[options], videos);
+        for (int i = 0; i < options; i += 2) {
+            analysis.setOption(args[i], Integer.parseInt(args[i + 1]));
+        }
+        run(analysis, args[options + 1]);
+    }
+
+    /**
+     * Set an option given on the command line.
+     * @param option The name of the option.
+     * @param value The value of the option.
+     */
+    private void setOption(final String option, final int value) {
+        if ("--threads".equals(option)) {
+            setThreads(value);
+        } else if ("--segment".equals(option)) {
+            setSegmentSeconds(value);
+        } else {
+            throw new IllegalArgumentException("Unknown option " + option + ", " + USAGE);
+        }
+    }
+
+    /**
+     * Run an analysis and write the timeline to a file.
+     * @param analysis The analysis.
+     * @param timelineFile The file the timeline is written to.
+     */
+    private static void run(final BatchAnalysis analysis, final String timelineFile) {
+        long start = System.nanoTime();
+        try (Writer out = new BufferedWriter(new FileWriter(timelineFile))) {
+            int frames = analysis.run(out);
+            System.out.println(String.format(Locale.ROOT, "Analysed %d frames in %.1f s",
+                frames, (System.nanoTime() - start) / NANOS));
+        } catch (IOException e) {
+            System.out.println("Timeline could not be written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the OpenCV libraries, like the main of the user interface does.
+     */
+    private static void loadLibraries() {
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs"
+            + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs"
+            + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Analyse all videos until they end and write a line for every analysed frame.
+     * @param out The writer of the timeline.
+     * @return The amount of analysed frames.
+     * @throws IOException When the timeline could not be written.
+     */
+    public int run(final Writer out) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<List<TimelineEntry>>> tasks = new ArrayList<>();
+        for (int i = 0; i < configs.size(); i++) {
+            tasks.add(pool.submit(createTask(i)));
+        }
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (ForkJoinTask<List<TimelineEntry>> task : tasks) {
+            entries.addAll(task.join());
+        }
+        pool.shutdown();
+        Collections.sort(entries);
+        new Timeline(configs.size()).write(out, entries);
+        return entries.size();
+    }
+
+    /**
+     * Create the task that analyses the whole video of a camera.
+     * Videos of which the length or frame rate is unknown are not split.
+     * @param camera The index of the camera.
+     * @return The task.
+     */
+    private SegmentAnalysis createTask(final int camera) {
+        int frames = frameCounts.get(camera);
+        double frameRate = frameRates.get(camera);
+        if (frames <= 0 || frameRate <= 0) {
+            return new SegmentAnalysis(configs.get(camera), camera, chests, 0,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+        int segmentFrames = (int) Math.ceil(segmentSeconds * frameRate);
+        return new SegmentAnalysis(configs.get(camera), camera, chests, 0, frames, segmentFrames);
+    }
+
+    /**
+     * Set the amount of threads the videos are analysed on.
+     * @param newThreads The amount of threads, at least 1.
+     */
+    public void setThreads(final int newThreads) {
+        this.threads = Math.max(1, newThreads);
+    }
+
+    /**
+     * Set the length of the segments the videos are split in.
+     * Shorter segments give more parallelism, but every segment starts with a warm-up.
+     * @param seconds The length of a segment in seconds.
+     */
+    public void setSegmentSeconds(final int seconds) {
+        this.segmentSeconds = Math.max(1, seconds);
+    }
+}
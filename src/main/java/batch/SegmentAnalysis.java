@@ -0,0 +1,128 @@
+package batch;
+
+import camera.Camera;
+import camera.CameraConfig;
+import handlers.CameraHandler;
+import handlers.InformationHandler;
+import javafx.util.Pair;
+import org.opencv.core.Mat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Task that analyses a range of frames of the video of one camera.
+ * Ranges longer than a segment are split in halves that are analysed in parallel.
+ * Every segment opens the video itself and starts some frames early, so the background
+ * subtraction and the tracker have warmed up at the first frame of the segment.
+ * The background of a segment is learned from its warm-up only, so the activity and the
+ * chests of a segmented analysis are close to, but not the same as, those of an analysis
+ * from the start of the video.
+ */
+public class SegmentAnalysis extends RecursiveTask<List<TimelineEntry>> {
+
+    /**
+     * The amount of frames a segment starts early. The background subtraction remembers
+     * more frames than this, so the warm-up makes the results of a segment approximate.
+     */
+    public static final int WARM_UP_FRAMES = 400;
+    private static final long serialVersionUID = 1L;
+    private transient CameraConfig config;
+    private int camera;
+    private int chests;
+    private int firstFrame;
+    private int endFrame;
+    private int segmentFrames;
+
+    /**
+     * Constructor for the analysis of a range of frames.
+     * @param newConfig The configuration of the camera.
+     * @param newCamera The index of the camera.
+     * @param newChests The amount of chests in the room.
+     * @param first The first frame of the range.
+     * @param end The frame after the range, or Integer.MAX_VALUE for the end of the video.
+     * @param newSegmentFrames The maximum amount of frames in a segment.
+     */
+    public SegmentAnalysis(final CameraConfig newConfig, final int newCamera, final int newChests,
+                           final int first, final int end, final int newSegmentFrames) {
+        config = newConfig;
+        camera = newCamera;
+        chests = newChests;
+        firstFrame = first;
+        endFrame = end;
+        segmentFrames = Math.max(1, newSegmentFrames);
+    }
+
+    @Override
+    protected List<TimelineEntry> compute() {
+        if (endFrame == Integer.MAX_VALUE || endFrame - firstFrame <= segmentFrames) {
+            return analyse();
+        }
+        int middle = firstFrame + (endFrame - firstFrame) / 2;
+        SegmentAnalysis left =
+            new SegmentAnalysis(config, camera, chests, firstFrame, middle, segmentFrames);
+        SegmentAnalysis right =
+            new SegmentAnalysis(config, camera, chests, middle, endFrame, segmentFrames);
+        left.fork();
+        List<TimelineEntry> entries = new ArrayList<>(right.compute());
+        entries.addAll(0, left.join());
+        return entries;
+    }
+
+    /**
+     * Analyse the frames of the segment with a camera of its own.
+     * @return The entries of the analysed frames of the segment, in order.
+     */
+    private List<TimelineEntry> analyse() {
+        CameraHandler handler = new CameraHandler();
+        Camera segmentCamera = openCamera(handler);
+        List<TimelineEntry> entries = new ArrayList<>();
+        while (segmentCamera.getFrameCounter() + 1 < endFrame
+            && handler.analyseNextFrame(segmentCamera)) {
+            int frame = segmentCamera.getFrameCounter();
+            int found = releaseChests(handler.getInformationHandler());
+            if (frame >= firstFrame && frame % CameraHandler.ANALYSIS_FREQUENCY == 0) {
+                entries.add(new TimelineEntry(camera, frame, segmentCamera.getVideoTime(),
+                    segmentCamera.getActivity().getLastActivity(), found));
+            }
+        }
+        handler.closeHandler();
+        return entries;
+    }
+
+    /**
+     * Open the video of the segment at the start of its warm-up.
+     * @param handler The handler the camera is added to, the frames are only read on request.
+     * @return The camera.
+     */
+    private Camera openCamera(final CameraHandler handler) {
+        handler.setRealTime(false);
+        Camera segmentCamera = handler.addCamera(config, chests);
+        if (segmentCamera == null) {
+            throw new IllegalStateException("Could not open " + config.getLink());
+        }
+        segmentCamera.seekFrame(Math.max(0, firstFrame - WARM_UP_FRAMES));
+        return segmentCamera;
+    }
+
+    /**
+     * Remove the cutouts of the chests found in the last analysed frame and its information.
+     * The information is about the room, which is only known when the segments are merged.
+     * @param information The information handler the cutouts were added to.
+     * @return The amount of chests.
+     */
+    private int releaseChests(final InformationHandler information) {
+        int found = 0;
+        Pair<Mat, Long> chest = information.getMatrix();
+        while (chest != null) {
+            chest.getKey().release();
+            found++;
+            chest = information.getMatrix();
+        }
+        while (information.getInformationDepth() > 0) {
+            information.getInformation();
+        }
+        return found;
+    }
+}
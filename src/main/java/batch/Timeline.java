@@ -0,0 +1,85 @@
+package batch;
+
+import camera.CameraActivity;
+import handlers.CameraHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class that writes the entries of the analysed frames as a timeline of the room.
+ * The state of the room, whether it started and the activity level, depends on all cameras,
+ * so it is replayed from the entries in order, like the CameraHandler does in real time.
+ */
+public class Timeline {
+
+    /**
+     * The first line of a timeline.
+     */
+    public static final String HEADER = "time,camera,frame,activity,level,chests,information";
+    private static final double MILLIS = 1000;
+    private List<CameraActivity> activities = new ArrayList<>();
+    private CameraHandler.Activity level = CameraHandler.Activity.ZERO;
+
+    /**
+     * Constructor for the timeline of a room.
+     * @param cameras The amount of cameras.
+     */
+    public Timeline(final int cameras) {
+        for (int i = 0; i < cameras; i++) {
+            activities.add(new CameraActivity());
+        }
+    }
+
+    /**
+     * Write a line for every entry, with the activity level of the room after it.
+     * @param out The writer of the timeline.
+     * @param entries The entries ordered by frame and camera.
+     * @throws IOException When the timeline could not be written.
+     */
+    public void write(final Writer out, final List<TimelineEntry> entries) throws IOException {
+        out.write(HEADER + System.lineSeparator());
+        for (TimelineEntry entry : entries) {
+            String information = add(entry);
+            out.write(String.format(Locale.ROOT, "%.3f,%d,%d,%.4f,%s,%d,\"%s\"%n",
+                entry.getTime() / MILLIS, entry.getCamera(), entry.getFrame(),
+                entry.getActivity(), level, entry.getChests(), information));
+        }
+    }
+
+    /**
+     * Add the activity of an entry to its camera and update the state of the room.
+     * @param entry The entry.
+     * @return The information about the room, empty if nothing happened.
+     */
+    private String add(final TimelineEntry entry) {
+        CameraActivity activity = activities.get(entry.getCamera());
+        activity.addActivity(entry.getActivity(), entry.getFrame());
+        String information = "";
+        if (level == CameraHandler.Activity.ZERO
+            && activity.getLastActivity() > CameraHandler.ACTIVITY_THRESHOLD) {
+            information = "Detected activity";
+            for (CameraActivity cameraActivity : activities) {
+                cameraActivity.setStarted(true);
+            }
+        }
+        if (!information.isEmpty() || level != CameraHandler.Activity.ZERO) {
+            changeLevel();
+        }
+        return information;
+    }
+
+    /**
+     * Change the activity level of the room with the last activity of every camera.
+     */
+    private void changeLevel() {
+        double ratio = 0;
+        for (CameraActivity cameraActivity : activities) {
+            ratio += cameraActivity.calculateRatio();
+        }
+        level = CameraHandler.toActivity(ratio / activities.size());
+    }
+}
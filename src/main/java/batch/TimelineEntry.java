@@ -0,0 +1,79 @@
+package batch;
+
+/**
+ * Class for the result of one analysed frame of a camera in the batch analysis.
+ * Entries are ordered by frame and then by camera, like the cameras take turns in real time.
+ */
+public class TimelineEntry implements Comparable<TimelineEntry> {
+
+    private int camera;
+    private int frame;
+    private double time;
+    private double activity;
+    private int chests;
+
+    /**
+     * Constructor for the entry of an analysed frame.
+     * @param newCamera The index of the camera.
+     * @param newFrame The index of the frame in the video.
+     * @param newTime The time of the frame in the video in milliseconds.
+     * @param newActivity The activity of the whole frame.
+     * @param newChests The amount of chests detected in the frame.
+     */
+    public TimelineEntry(final int newCamera, final int newFrame, final double newTime,
+                         final double newActivity, final int newChests) {
+        camera = newCamera;
+        frame = newFrame;
+        time = newTime;
+        activity = newActivity;
+        chests = newChests;
+    }
+
+    @Override
+    public int compareTo(final TimelineEntry other) {
+        if (frame != other.frame) {
+            return Integer.compare(frame, other.frame);
+        }
+        return Integer.compare(camera, other.camera);
+    }
+
+    /**
+     * Get the index of the camera.
+     * @return The index of the camera.
+     */
+    public int getCamera() {
+        return camera;
+    }
+
+    /**
+     * Get the index of the frame in the video.
+     * @return The index of the frame.
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Get the time of the frame in the video.
+     * @return The time in milliseconds.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Get the activity of the whole frame.
+     * @return The activity.
+     */
+    public double getActivity() {
+        return activity;
+    }
+
+    /**
+     * Get the amount of chests detected in the frame.
+     * @return The amount of chests.
+     */
+    public int getChests() {
+        return chests;
+    }
+}
@@ -0,0 +1,87 @@
+package camera;
+
+/**
+ * Histogram of activity values to look up the rank of an activity in logarithmic time.
+ * The values are counted in fixed bins in a Fenwick tree, so the memory does not grow
+ * with the amount of values. Values in the same bin are seen as equal.
+ */
+public class ActivityHistogram {
+
+    /**
+     * The highest activity, the mean of a foreground mask.
+     */
+    public static final double MAX_ACTIVITY = 255;
+    /**
+     * The default amount of bins.
+     */
+    public static final int DEFAULT_BINS = 4096;
+    private int[] tree;
+    private double binsPerActivity;
+    private int size;
+
+    /**
+     * Constructor for a histogram with the default amount of bins.
+     */
+    public ActivityHistogram() {
+        this(DEFAULT_BINS);
+    }
+
+    /**
+     * Constructor for the histogram.
+     * @param bins The amount of bins between 0 and MAX_ACTIVITY.
+     */
+    public ActivityHistogram(final int bins) {
+        tree = new int[Math.max(1, bins) + 1];
+        binsPerActivity = (tree.length - 1) / MAX_ACTIVITY;
+    }
+
+    /**
+     * Add an activity to the histogram.
+     * @param activity The activity.
+     */
+    public synchronized void add(final double activity) {
+        for (int i = bin(activity) + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Count the activities that are lower than or equal to an activity.
+     * @param activity The activity.
+     * @return The amount of activities.
+     */
+    public synchronized int countAtMost(final double activity) {
+        int count = 0;
+        for (int i = bin(activity) + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Get the bin of an activity, values outside the range go in the first or last bin.
+     * @param activity The activity.
+     * @return The index of the bin.
+     */
+    private int bin(final double activity) {
+        int bin = (int) (activity * binsPerActivity);
+        return Math.max(0, Math.min(bin, tree.length - 2));
+    }
+
+    /**
+     * Get the amount of activities in the histogram.
+     * @return The amount of activities.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Remove all activities from the histogram.
+     */
+    public synchronized void clear() {
+        tree = new int[tree.length];
+        size = 0;
+    }
+}
@@ -0,0 +1,118 @@
+package camera;
+
+/**
+ * Time series of activities stored in a primitive array of bounded size.
+ * When the array is full every two points are averaged into one, so the whole
+ * game stays available at a lower resolution. New activities are then averaged
+ * per stride before they are stored.
+ */
+public class ActivitySeries {
+
+    /**
+     * The default maximum amount of stored points.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+    private double[] points;
+    private int size;
+    private int stride = 1;
+    private double pendingSum;
+    private int pendingCount;
+
+    /**
+     * Constructor for a series with the default capacity.
+     */
+    public ActivitySeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the series.
+     * @param capacity The maximum amount of stored points, rounded up to an even number.
+     */
+    public ActivitySeries(final int capacity) {
+        points = new double[Math.max(2, capacity + capacity % 2)];
+    }
+
+    /**
+     * Add an activity to the series.
+     * @param activity The activity.
+     */
+    public synchronized void add(final double activity) {
+        pendingSum += activity;
+        pendingCount++;
+        if (pendingCount < stride) {
+            return;
+        }
+        points[size++] = pendingSum / pendingCount;
+        pendingSum = 0;
+        pendingCount = 0;
+        if (size == points.length) {
+            downsample();
+        }
+    }
+
+    /**
+     * Average every two points into one and double the stride.
+     */
+    private void downsample() {
+        for (int i = 0; i < size / 2; i++) {
+            points[i] = (points[2 * i] + points[2 * i + 1]) / 2;
+        }
+        size = size / 2;
+        stride = stride * 2;
+    }
+
+    /**
+     * Get a point of the series.
+     * @param index The index of the point.
+     * @return The average activity of the point.
+     */
+    public synchronized double get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return points[index];
+    }
+
+    /**
+     * Get a copy of the stored points, from the oldest to the newest.
+     * @return The points.
+     */
+    public synchronized double[] toArray() {
+        double[] copy = new double[size];
+        System.arraycopy(points, 0, copy, 0, size);
+        return copy;
+    }
+
+    /**
+     * Get the amount of stored points.
+     * @return The amount of points.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Check if the series has no points.
+     * @return True if no points are stored.
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the amount of activities averaged in every new point.
+     * @return The stride.
+     */
+    public synchronized int getStride() {
+        return stride;
+    }
+
+    /**
+     * Get the maximum amount of stored points.
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return points.length;
+    }
+}
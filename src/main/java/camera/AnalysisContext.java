@@ -0,0 +1,93 @@
+package camera;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+
+/**
+ * Class for the representations of one analysed frame that are shared between the
+ * activity measurement and the chest detection: the foreground of the frame and the region
+ * of interest. The foreground is computed at most once, when it is first asked for, into a
+ * matrix borrowed from the pool of the camera.
+ */
+public class AnalysisContext {
+
+    private Camera camera;
+    private Mat frame;
+    private Rect region;
+    private Mat foreground;
+    private Mat regionForeground;
+
+    /**
+     * Constructor for the context of a frame.
+     * @param newCamera The camera that generated the frame.
+     * @param newFrame The frame at analysis scale, it is not released by the context.
+     */
+    public AnalysisContext(final Camera newCamera, final Mat newFrame) {
+        camera = newCamera;
+        frame = newFrame;
+        region = camera.getRegionOfInterest(frame, camera.getAnalysisScale());
+    }
+
+    /**
+     * Get the camera that generated the frame.
+     * @return The camera.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Get the frame at analysis scale.
+     * @return The frame.
+     */
+    public Mat getFrame() {
+        return frame;
+    }
+
+    /**
+     * Get the bounding box of the region of interest of the camera in the frame.
+     * @return The region, the whole frame if the camera has no region of interest.
+     */
+    public Rect getRegion() {
+        return region;
+    }
+
+    /**
+     * Get the foreground of the whole frame, subtracted from the background of the camera.
+     * Foreground pixels are white, shadows grey and background black.
+     * @return The foreground mask.
+     */
+    public Mat getForeground() {
+        if (foreground == null) {
+            long start = System.nanoTime();
+            foreground = camera.getMatPool().borrow(frame.rows(), frame.cols(), CvType.CV_8UC1);
+            camera.getChestDetector().subtractFrame(frame, foreground);
+            camera.getMetrics().record(CameraMetrics.Stage.SUBTRACTION, start);
+        }
+        return foreground;
+    }
+
+    /**
+     * Get the foreground of the region of interest, a view on the foreground of the frame.
+     * @return The foreground mask, of the size of the region.
+     */
+    public Mat getRegionForeground() {
+        if (regionForeground == null) {
+            regionForeground = getForeground().submat(region);
+        }
+        return regionForeground;
+    }
+
+    /**
+     * Give the computed foreground back to the pool of the camera.
+     */
+    public void release() {
+        if (regionForeground != null) {
+            regionForeground.release();
+            regionForeground = null;
+        }
+        camera.getMatPool().recycle(foreground);
+        foreground = null;
+    }
+}
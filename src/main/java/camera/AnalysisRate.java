@@ -0,0 +1,86 @@
+package camera;
+
+/**
+ * Class that decides which frames of a camera are analysed.
+ * The interval between analysed frames is changed after every analysis, so quiet cameras
+ * are analysed rarely and busy cameras, or cameras in which a chest appeared, often.
+ * Which frames are due is only asked by the thread that submits the frames, the interval
+ * can be changed by the thread that analysed a frame.
+ */
+public class AnalysisRate {
+
+    private volatile int interval;
+    private int lastDue = -1;
+    private int dueInterval;
+    private volatile int boostEnd = -1;
+    private int trackedChests = 0;
+
+    /**
+     * Constructor for the analysis rate of a camera.
+     * @param initialInterval The interval in frames until it is first changed.
+     */
+    public AnalysisRate(final int initialInterval) {
+        interval = Math.max(1, initialInterval);
+    }
+
+    /**
+     * Check if a frame should be analysed. A frame is due one interval after the last due frame,
+     * with the interval of that frame, or with the current interval when that is shorter.
+     * @param frame The number of the frame.
+     * @return True if the frame should be analysed, false if it is skipped.
+     */
+    public boolean isDue(final int frame) {
+        int current = interval;
+        if (lastDue != -1 && frame < lastDue + Math.min(dueInterval, current)) {
+            return false;
+        }
+        lastDue = frame;
+        dueInterval = current;
+        return true;
+    }
+
+    /**
+     * Check if more chests are tracked than at the last analysis.
+     * @param tracked The amount of tracked chests.
+     * @return True if a chest appeared, false otherwise.
+     */
+    public boolean chestsAppeared(final int tracked) {
+        boolean appeared = tracked > trackedChests;
+        trackedChests = tracked;
+        return appeared;
+    }
+
+    /**
+     * Analyse every frame until a frame.
+     * @param endFrame The first frame after the boost.
+     */
+    public void boost(final int endFrame) {
+        boostEnd = endFrame;
+    }
+
+    /**
+     * Check if every frame should be analysed.
+     * @param frame The number of the current frame.
+     * @return True if the boost has not ended at the frame, false otherwise.
+     */
+    public boolean isBoosted(final int frame) {
+        return frame < boostEnd;
+    }
+
+    /**
+     * Set the interval between analysed frames, which applies after the next analysed frame.
+     * When the interval is made shorter the next frame that is due is moved forward as well.
+     * @param newInterval The interval in frames, at least 1.
+     */
+    public void setInterval(final int newInterval) {
+        interval = Math.max(1, newInterval);
+    }
+
+    /**
+     * Get the interval between analysed frames.
+     * @return The interval in frames.
+     */
+    public int getInterval() {
+        return interval;
+    }
+}
@@ -1,7 +1,10 @@
 package camera;
 
 import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.imgproc.Imgproc;
 import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
 
 import java.util.Objects;
 
@@ -11,7 +14,22 @@ import java.util.Objects;
  */
 public class Camera {
 
+    /**
+     * The default amount of frames of a video file that are decoded ahead.
+     */
+    public static final int DEFAULT_READ_AHEAD = 8;
+    /**
+     * The minimum amount of frames of a video file that are decoded ahead.
+     */
+    public static final int MIN_READ_AHEAD = 2;
+    /**
+     * The maximum time in milliseconds to wait for the capture thread to stop.
+     */
+    public static final long STOP_TIMEOUT_MILLIS = 1000;
     private static final int DEFAULT_NUM_OF_CHESTS = 1;
+    private static final int MAX_PYRAMID_LEVELS = 4;
+    private static final int DEFAULT_FRAME_RATE = 25;
+    private static final int DEFAULT_ANALYSIS_INTERVAL = 10;
     private VideoCapture videoCapture;
     private String link;
     private Mat firstFrame;
@@ -19,9 +37,22 @@ public class Camera {
     private boolean changed = false;
     private int numOfChestsInRoom;
     private int frameCounter = -1;
+    private boolean newFrame = false;
+    private FrameRingBuffer ringBuffer;
+    private Thread captureThread;
+    private volatile boolean capturing = false;
+    private int readAhead = DEFAULT_READ_AHEAD;
+    private double sourceFrameRate;
+    private boolean paced = false;
+    private PlaybackClock clock;
+    private int pyramidLevels = 0;
+    private MatPool matPool = new MatPool();
+    private CameraMetrics metrics = new CameraMetrics();
+    private RegionOfInterest regionOfInterest;
     private CameraActivity activity = new CameraActivity();
-    private CameraChestTracker tracker = new CameraChestTracker();
+    private CameraChestTracker tracker = new CameraChestTracker(matPool);
     private CameraChestDetector detector = new CameraChestDetector();
+    private AnalysisRate analysisRate = new AnalysisRate(DEFAULT_ANALYSIS_INTERVAL);
 
     /**
      * Constructor for a camera with possibility to specify no chests and persons.
@@ -35,6 +66,7 @@ public class Camera {
         this.videoCapture = newCapture;
         this.link = newLink;
         this.numOfChestsInRoom = Math.max(DEFAULT_NUM_OF_CHESTS, numOfChests);
+        this.sourceFrameRate = readFrameRate(newCapture);
     }
 
     /**
@@ -47,27 +79,200 @@ public class Camera {
         this.videoCapture = newCapture;
         this.link = newLink;
         this.numOfChestsInRoom = DEFAULT_NUM_OF_CHESTS;
+        this.sourceFrameRate = readFrameRate(newCapture);
     }
 
     /**
      * Gets the last known frame of this camera.
+     * The frame is borrowed from the pool of this camera and can be recycled there.
      *
      * @return The frame in Mat format.
      */
     public Mat getLastFrame() {
-        Mat newFrame = loadFrame();
+        if (ringBuffer != null) {
+            return getLastCapturedFrame();
+        }
+        Mat loadedFrame = loadFrame();
 
-        if (newFrame != null && newFrame.rows() != 0 && newFrame.cols() != 0) {
-            lastFrame = newFrame;
+        if (loadedFrame != null && loadedFrame.rows() != 0 && loadedFrame.cols() != 0) {
+            matPool.recycle(lastFrame);
+            lastFrame = loadedFrame;
             changed = true;
+            newFrame = true;
         } else {
+            matPool.recycle(loadedFrame);
             changed = false;
-            return lastFrame.clone();
+            newFrame = false;
+            return copyLastFrame();
         }
 
         frameCounter++;
 
-        return lastFrame.clone();
+        return copyLastFrame();
+    }
+
+    /**
+     * Copy the last frame into a Mat borrowed from the pool of this camera.
+     *
+     * @return The copy, which should be recycled in the pool when it is not used anymore.
+     */
+    private Mat copyLastFrame() {
+        Mat copy = matPool.borrow(lastFrame);
+        lastFrame.copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Gets the newest frame the capture thread has completed.
+     * The camera stays changed as long as the capture thread is running.
+     * A paced video only gives its next frame when it is due, see setPaced.
+     *
+     * @return The frame in Mat format.
+     */
+    private Mat getLastCapturedFrame() {
+        boolean alive = capturing;
+        long now = System.nanoTime();
+        if (clock != null && !clock.isDue(frameCounter + 1, now)) {
+            newFrame = false;
+            changed = alive || ringBuffer.getAvailableFrames() > 0;
+            return copyLastFrame();
+        }
+        newFrame = ringBuffer.readInto(lastFrame);
+        changed = newFrame || alive;
+        if (newFrame) {
+            frameCounter++;
+        } else if (clock != null) {
+            clock.late(frameCounter + 1, now);
+        }
+        return copyLastFrame();
+    }
+
+    /**
+     * Start a thread that decodes the frames of this camera into a ring buffer.
+     * Streams only keep the newest frames, other sources are read without dropping frames
+     * and are decoded readAhead frames ahead, so a slow frame does not stall the playback.
+     */
+    public void startCapture() {
+        if (captureThread != null) {
+            return;
+        }
+        int capacity = FrameRingBuffer.DEFAULT_CAPACITY;
+        if (!isStream()) {
+            capacity = readAhead;
+            if (paced) {
+                clock = new PlaybackClock(sourceFrameRate);
+            }
+        }
+        ringBuffer = new FrameRingBuffer(capacity, !isStream());
+        capturing = true;
+        captureThread = new Thread(this::capture, "capture-" + link);
+        captureThread.setDaemon(true);
+        captureThread.start();
+    }
+
+    /**
+     * Decode frames into the ring buffer until the source ends or capturing is stopped.
+     */
+    private void capture() {
+        try {
+            while (capturing) {
+                Mat slot = ringBuffer.nextWriteSlot();
+                long start = System.nanoTime();
+                if (!capturing || !videoCapture.read(slot) || slot.empty()) {
+                    break;
+                }
+                metrics.record(CameraMetrics.Stage.CAPTURE, start);
+                ringBuffer.publish();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            capturing = false;
+        }
+    }
+
+    /**
+     * Stop the capture thread of this camera, wait until it ended and release the capture.
+     * When the thread does not end within STOP_TIMEOUT_MILLIS the capture is not released,
+     * because the thread may still be reading from it.
+     */
+    public void stopCapture() {
+        capturing = false;
+        if (ringBuffer != null) {
+            ringBuffer.close();
+        }
+        if (captureThread != null) {
+            try {
+                captureThread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (videoCapture != null && (captureThread == null || !captureThread.isAlive())) {
+            videoCapture.release();
+        }
+    }
+
+    /**
+     * Set the amount of frames of a video file that are decoded ahead of the frame shown.
+     * More frames smooth out frames that are slow to decode, but every frame takes memory.
+     * Should be set before the capture starts.
+     * @param frames The amount of frames, a smaller amount than MIN_READ_AHEAD is raised.
+     */
+    public void setReadAhead(final int frames) {
+        this.readAhead = Math.max(MIN_READ_AHEAD, frames);
+    }
+
+    /**
+     * Get the amount of frames of a video file that are decoded ahead of the frame shown.
+     * @return The amount of frames.
+     */
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * Set if a video file is played at its own frame rate, or as fast as its frames are
+     * asked for, like for a replay or a test. Streams are always played as they arrive.
+     * Should be set before the capture starts.
+     * @param newPaced True to play at the frame rate of the video.
+     */
+    public void setPaced(final boolean newPaced) {
+        this.paced = newPaced;
+    }
+
+    /**
+     * Open the link of this camera again and restart its capture thread,
+     * like when a stream dropped and its capture ended.
+     * @return True if the link could be opened again, false otherwise.
+     */
+    public boolean reconnect() {
+        stopCapture();
+        VideoCapture capture = new VideoCapture();
+        if (!capture.open(link)) {
+            return false;
+        }
+        videoCapture = capture;
+        sourceFrameRate = readFrameRate(capture);
+        captureThread = null;
+        startCapture();
+        return true;
+    }
+
+    /**
+     * Check if the capture thread of this camera is running.
+     * @return True if capturing, false otherwise.
+     */
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Check if this camera is a live stream instead of a video file.
+     * @return True if the link is a stream, false otherwise.
+     */
+    public boolean isStream() {
+        return link != null && link.startsWith("rtsp");
     }
 
     /**
@@ -76,11 +281,142 @@ public class Camera {
      * @return The new frame in Mat format.
      */
     public Mat loadFrame() {
-        Mat loadFrame = new Mat();
+        Mat loadFrame = matPool.borrow(lastFrame);
+        long start = System.nanoTime();
         videoCapture.read(loadFrame);
+        metrics.record(CameraMetrics.Stage.CAPTURE, start);
         return loadFrame;
     }
 
+    /**
+     * Skip the next frame of the videoCapture without decoding it into a Mat.
+     * The frame still counts, so the frame counter stays the index in the video.
+     *
+     * @return True if there was a next frame, false at the end of the video.
+     */
+    public boolean skipFrame() {
+        long start = System.nanoTime();
+        newFrame = videoCapture.grab();
+        metrics.record(CameraMetrics.Stage.CAPTURE, start);
+        changed = newFrame;
+        if (newFrame) {
+            frameCounter++;
+        }
+        return newFrame;
+    }
+
+    /**
+     * Move the videoCapture to a frame of the video, so that frame is read next.
+     * When the video can not seek the frames before it are skipped.
+     *
+     * @param frame The index of the frame in the video.
+     */
+    public void seekFrame(final int frame) {
+        if (!videoCapture.set(Videoio.CAP_PROP_POS_FRAMES, frame)) {
+            boolean skipped = true;
+            while (skipped && frameCounter + 1 < frame) {
+                skipped = skipFrame();
+            }
+        }
+        frameCounter = frame - 1;
+    }
+
+    /**
+     * Get the position of the last read frame in the video, from its frame rate.
+     * Not every backend keeps the position in milliseconds up to date, so it is only
+     * used when the frame rate is unknown.
+     * @return The time of the last read frame in milliseconds.
+     */
+    public double getVideoTime() {
+        final double millis = 1000;
+        if (sourceFrameRate > 0) {
+            return frameCounter * millis / sourceFrameRate;
+        }
+        return videoCapture.get(Videoio.CAP_PROP_POS_MSEC);
+    }
+
+    /**
+     * Create the copy of a frame that is used for the analysis.
+     * The frame is halved pyramidLevels times, every level is borrowed from the pool.
+     *
+     * @param frame The frame at full resolution.
+     * @return The downscaled frame, or the frame itself when the analysis scale is 1.
+     */
+    public Mat scaleForAnalysis(final Mat frame) {
+        Mat current = frame;
+        for (int i = 0; i < pyramidLevels; i++) {
+            Mat smaller = matPool.borrow((current.rows() + 1) / 2, (current.cols() + 1) / 2,
+                current.type());
+            Imgproc.pyrDown(current, smaller);
+            if (current != frame) {
+                matPool.recycle(current);
+            }
+            current = smaller;
+        }
+        return current;
+    }
+
+    /**
+     * Set the scale at which frames are analysed.
+     * The scale is rounded to a power of two, since the frames are downscaled as a pyramid.
+     *
+     * @param scale The analysis scale, 1 for full resolution.
+     */
+    public void setAnalysisScale(final double scale) {
+        int levels = 0;
+        if (scale > 0 && scale < 1) {
+            levels = (int) Math.round(Math.log(1 / scale) / Math.log(2));
+        }
+        pyramidLevels = Math.min(levels, MAX_PYRAMID_LEVELS);
+    }
+
+    /**
+     * Get the region of a frame in which chests are searched.
+     * @param frame The frame.
+     * @param scale The scale of the frame compared to the full resolution.
+     * @return The bounding box of the region of interest, or the whole frame without one.
+     */
+    public Rect getRegionOfInterest(final Mat frame, final double scale) {
+        if (regionOfInterest == null) {
+            return new Rect(0, 0, frame.cols(), frame.rows());
+        }
+        return regionOfInterest.getBounds(frame, scale);
+    }
+
+    /**
+     * Set the pixels outside the region of interest to zero.
+     * @param boxFrame The single channel region of an analysed frame.
+     */
+    public void maskRegionOfInterest(final Mat boxFrame) {
+        if (regionOfInterest != null) {
+            regionOfInterest.apply(boxFrame, getAnalysisScale());
+        }
+    }
+
+    /**
+     * Get the region in which chests are searched.
+     * @return The region of interest, null for the whole frame.
+     */
+    public RegionOfInterest getRegionOfInterest() {
+        return regionOfInterest;
+    }
+
+    /**
+     * Set the region in which chests are searched.
+     * @param region The region of interest, null for the whole frame.
+     */
+    public void setRegionOfInterest(final RegionOfInterest region) {
+        this.regionOfInterest = region;
+    }
+
+    /**
+     * Get the scale at which frames are analysed.
+     * @return The analysis scale.
+     */
+    public double getAnalysisScale() {
+        return 1.0 / (1 << pyramidLevels);
+    }
+
     /**
      * Overriding equals method.
      *
@@ -99,6 +435,16 @@ public class Camera {
         return Objects.equals(link, camera.link);
     }
 
+    /**
+     * Overriding hashCode method, consistent with equals.
+     *
+     * @return The hash of the link.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(link);
+    }
+
     /**
      * Returns if the frame of the camera is changed.
      *
@@ -108,6 +454,15 @@ public class Camera {
         return changed;
     }
 
+    /**
+     * Returns if the last call to getLastFrame gave a frame that was not seen before.
+     *
+     * @return If the frame is new.
+     */
+    public boolean hasNewFrame() {
+        return newFrame;
+    }
+
     /**
      * Get the first frame known of the camera.
      * @return The Mat of the first frame.
@@ -164,6 +519,56 @@ public class Camera {
         return tracker;
     }
 
+    /**
+     * Get the pool of reusable matrices of this camera.
+     * @return this.matPool
+     */
+    public MatPool getMatPool() {
+        return matPool;
+    }
+
+    /**
+     * Get the rate at which the frames of this camera are analysed.
+     * @return The analysis rate.
+     */
+    public AnalysisRate getAnalysisRate() {
+        return analysisRate;
+    }
+
+    /**
+     * Get the frame rate of the camera, rounded to whole frames.
+     * The frame rate is read when the capture is opened, because the capture can not be
+     * used by other threads while the capture thread reads from it.
+     * @return The frame rate, or 25 if the capture does not know it.
+     */
+    public int getFrameRate() {
+        int frameRate = (int) Math.round(sourceFrameRate);
+        if (frameRate <= 0) {
+            return DEFAULT_FRAME_RATE;
+        }
+        return frameRate;
+    }
+
+    /**
+     * Read the frame rate of a capture.
+     * @param capture The capture, can be null.
+     * @return The frame rate, 0 if it is not known.
+     */
+    private static double readFrameRate(final VideoCapture capture) {
+        if (capture == null) {
+            return 0;
+        }
+        return capture.get(Videoio.CAP_PROP_FPS);
+    }
+
+    /**
+     * Get the latencies of the stages of the frame path of this camera.
+     * @return The metrics.
+     */
+    public CameraMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Get the detector.
      * @return this.detector
@@ -18,8 +18,10 @@ public class CameraActivity {
      */
     public static final int FRAMES = 1;
     private List<Mat> frameParts = new ArrayList<>();
-    private List<List<Double>> activityList;
+    private List<ActivitySeries> activityList;
+    private ActivityHistogram histogram = new ActivityHistogram();
     private List<BackgroundSubtractorKNN> knns = new ArrayList<>();
+    private Mat subtraction = new Mat();
     private double lastActivity = 0;
     private int frameCounter;
     private boolean started = false;
@@ -28,15 +30,23 @@ public class CameraActivity {
      * Constructor for the class.
      */
     public CameraActivity() {
+        this(ActivitySeries.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the class.
+     * @param retention The maximum amount of points kept of the activities of every part.
+     */
+    public CameraActivity(final int retention) {
         final int threshold = 1000;
 
         this.activityList = new ArrayList<>();
         for (int i = 0; i < FRAMES; i++) {
             frameParts.add(new Mat());
-            activityList.add(new ArrayList<>());
+            activityList.add(new ActivitySeries(retention));
             knns.add(Video.createBackgroundSubtractorKNN(1, threshold, false));
         }
-        activityList.add(new ArrayList<>());
+        activityList.add(new ActivitySeries(retention));
         knns.add(Video.createBackgroundSubtractorKNN(1, threshold, false));
     }
 
@@ -54,6 +64,33 @@ public class CameraActivity {
 
     }
 
+    /**
+     * Add all activities for every part of the frame, measured in the foreground of the frame
+     * that is shared with the chest detection instead of with a subtractor of the activity.
+     * @param context The context of the analysed frame.
+     * @param counter The new frameCounter.
+     */
+    public void addActivities(final AnalysisContext context, final int counter) {
+        frameCounter = counter;
+        Mat foreground = context.getForeground();
+        divideFrame(foreground);
+        for (int i = 0; i < FRAMES; i++) {
+            addForeground(frameParts.get(i), i);
+        }
+        lastActivity = addForeground(foreground, FRAMES);
+    }
+
+    /**
+     * Add the activity of the whole frame that was measured before, for example by another
+     * camera that analysed a part of the same video.
+     * @param change The activity of the whole frame.
+     * @param counter The new frameCounter.
+     */
+    public void addActivity(final double change, final int counter) {
+        frameCounter = counter;
+        lastActivity = recordActivity(change, FRAMES);
+    }
+
     /**
      * Method in which a frame get divided into frames equally large parts.
      * frames should be a number where the sqrt is an integer
@@ -84,9 +121,6 @@ public class CameraActivity {
      */
     public double addActivity(final Mat frame, final int partNumber,
                               final BackgroundSubtractorKNN knn) {
-        final int minFrames = 50;
-
-        Mat subtraction = new Mat();
         knn.apply(frame, subtraction);
         Scalar meanValues = Core.mean(subtraction);
 
@@ -94,11 +128,38 @@ public class CameraActivity {
         for (double v : meanValues.val) {
             change += v;
         }
+        return recordActivity(change, partNumber);
+    }
+
+    /**
+     * Add the activity of a part of the foreground of a frame to the list.
+     * Shadows count as foreground, like they do without shadow detection.
+     * @param foreground the foreground of the part of the frame
+     * @param partNumber current part of the frame
+     * @return double of the change
+     */
+    private double addForeground(final Mat foreground, final int partNumber) {
+        final double white = 255;
+        return recordActivity(Core.countNonZero(foreground) * white / foreground.total(),
+            partNumber);
+    }
+
+    /**
+     * Add the activity of a part of the frame to the list.
+     * @param change the activity
+     * @param partNumber current part of the frame
+     * @return the activity, 0 while too few frames are processed
+     */
+    private double recordActivity(final double change, final int partNumber) {
+        final int minFrames = 50;
 
         // Only add the activityList to the list when at least some frames are processed.
         if (frameCounter > minFrames) {
             if (started) {
                 activityList.get(partNumber).add(change);
+                if (partNumber == FRAMES) {
+                    histogram.add(change);
+                }
             }
             return change;
         }
@@ -110,15 +171,7 @@ public class CameraActivity {
      * @return The ratio.
      */
     public double calculateRatio() {
-        List<Double> activities = activityList.get(FRAMES);
-        int i = 0;
-
-        for (Double activity : activities) {
-            if (activity <= lastActivity) {
-                i++;
-            }
-        }
-        return (double) i / (double) activities.size();
+        return (double) histogram.countAtMost(lastActivity) / (double) histogram.size();
     }
 
     /**
@@ -130,14 +183,22 @@ public class CameraActivity {
     }
 
     /**
-     * Get the activityList of this camera.
+     * Get the activityList of this camera, with a series for every part and the whole frame.
      *
      * @return The activityList.
      */
-    public List<List<Double>> getActivityList() {
+    public List<ActivitySeries> getActivityList() {
         return activityList;
     }
 
+    /**
+     * Get the histogram of the activities of the whole frame.
+     * @return The histogram.
+     */
+    public ActivityHistogram getHistogram() {
+        return histogram;
+    }
+
     /**
      * Get the list of background subtractors.
      * @return knns
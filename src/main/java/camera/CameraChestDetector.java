@@ -1,6 +1,7 @@
 package camera;
 
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
@@ -20,7 +21,12 @@ public class CameraChestDetector extends CameraObjectDetector {
     private static final Scalar CHEST_COLOUR_LOWER = new Scalar(17, 120, 80);
     private static final Scalar CHEST_COLOUR_UPPER = new Scalar(35, 255, 205);
     private static final double MIN_CHEST_AREA = 550;
+    private static final int MOTION_MARGIN_RATIO = 16;
+    private static final Scalar BLACK = new Scalar(0);
     private Boolean isOpened = false;
+    private Mat hierarchy = new Mat();
+    private double cutoutScale = 1;
+    private double minChestArea = MIN_CHEST_AREA;
 
     /**
      * Method that checks for boxes in a frame.
@@ -34,22 +40,225 @@ public class CameraChestDetector extends CameraObjectDetector {
      */
     public List<Mat> checkForChests(final Mat newFrame, final Camera camera,
                                     final Mat subtraction) {
+        return checkForChests(newFrame, newFrame, camera, subtraction);
+    }
 
-        Mat dest = getChestsFromFrame(bgrToHsv(newFrame));
-        Mat subtracted = new Mat();
+    /**
+     * Method that checks for boxes in a downscaled copy of a frame.
+     * The minimal chest area is scaled along with the frame,
+     * the chests are cut out of the frame at full resolution.
+     *
+     * @param analysisFrame the (downscaled) frame that gets checked for the presence of boxes.
+     * @param fullFrame the frame at full resolution.
+     * @param camera the camera that generated the frame
+     * @param subtraction the subtraction of the analysis frame.
+     * @return List of the cutouts of the found chests.
+     */
+    public List<Mat> checkForChests(final Mat analysisFrame, final Mat fullFrame,
+                                    final Camera camera, final Mat subtraction) {
+        MatPool pool = camera.getMatPool();
+        Mat hsv = pool.borrow(analysisFrame);
+        bgrToHsv(analysisFrame, hsv);
+        List<Mat> mats = detectChests(hsv, fullFrame, camera, subtraction);
+        pool.recycle(hsv);
+        return mats;
+    }
+
+    /**
+     * Method that checks for boxes in the region of interest of an analysed frame,
+     * with the foreground that is shared with the activity.
+     * A chest is only detected where the foreground is, so the detection is skipped when
+     * the foreground is too small to hold a chest, and otherwise only the part of the frame
+     * around the foreground is searched for chest candidates.
+     *
+     * @param context the context of the analysed frame.
+     * @param fullFrame the region of interest of the frame at full resolution.
+     * @return List of the cutouts of the found chests.
+     */
+    public List<Mat> checkForChests(final AnalysisContext context, final Mat fullFrame) {
+        Rect region = context.getRegion();
+        setScale(fullFrame.cols(), region.width);
+        Mat subtraction = context.getRegionForeground();
         List<Mat> mats = new ArrayList<>();
+        isOpened = false;
+        if (Core.countNonZero(subtraction) > minChestArea) {
+            Rect motion = getMotionBounds(subtraction, context.getCamera());
+            Mat candidates = findChestCandidates(context, motion);
+            mats = detectChests(candidates, fullFrame, context.getCamera(), subtraction, motion);
+        }
+        return mats;
+    }
+
+    /**
+     * Method that checks for boxes in the hsv representation of a frame.
+     *
+     * @param hsv the (downscaled) frame in hsv colour space.
+     * @param fullFrame the frame at full resolution.
+     * @param camera the camera that generated the frame
+     * @param subtraction the subtraction of the analysis frame.
+     * @return List of the cutouts of the found chests.
+     */
+    private List<Mat> detectChests(final Mat hsv, final Mat fullFrame,
+                                   final Camera camera, final Mat subtraction) {
+        setScale(fullFrame.cols(), hsv.cols());
+        Mat candidates = camera.getMatPool().borrow(hsv.rows(), hsv.cols(), CvType.CV_8UC1);
+        getChestsFromFrame(hsv, candidates);
+        return detectChests(candidates, fullFrame, camera, subtraction,
+            new Rect(0, 0, hsv.cols(), hsv.rows()));
+    }
 
-        Mat tracked = camera.getTracker().trackChests(dest, MIN_CHEST_AREA);
+    /**
+     * Method that checks for boxes in the black/white image of the chest candidates.
+     *
+     * @param candidates the black/white frame, which is recycled in the pool of the camera.
+     * @param fullFrame the frame at full resolution.
+     * @param camera the camera that generated the frame
+     * @param subtraction the subtraction of the analysis frame.
+     * @param observed the part of the frame that was searched for chest candidates.
+     * @return List of the cutouts of the found chests.
+     */
+    private List<Mat> detectChests(final Mat candidates, final Mat fullFrame, final Camera camera,
+                                   final Mat subtraction, final Rect observed) {
+        MatPool pool = camera.getMatPool();
+        Mat tracked = trackChestCandidates(candidates, camera, observed);
+        Mat subtracted = pool.borrow(candidates.rows(), candidates.cols(), CvType.CV_8UC1);
+        List<Mat> mats = new ArrayList<>();
 
         Core.bitwise_and(tracked, subtraction, subtracted);
+        pool.recycle(tracked);
         detectChest(subtracted);
 
         if (isOpened) {
-            mats = includeChestContoursInFrame(newFrame, subtracted);
+            mats = includeChestContoursInFrame(fullFrame, subtracted);
         }
+        pool.recycle(subtracted);
         return mats;
     }
 
+    /**
+     * Set the scale of the cutouts and the minimal chest area in the analysed frame.
+     * @param fullWidth the width of the frame at full resolution.
+     * @param analysisWidth the width of the analysed frame.
+     */
+    private void setScale(final int fullWidth, final int analysisWidth) {
+        cutoutScale = (double) fullWidth / analysisWidth;
+        minChestArea = MIN_CHEST_AREA / (cutoutScale * cutoutScale);
+    }
+
+    /**
+     * Method that creates the black/white image of the chest candidates in a part of a frame,
+     * the rest of the image is black.
+     *
+     * @param context the context of the analysed frame.
+     * @param part the part of the region of interest that is searched.
+     * @return the black/white frame of the region of interest, borrowed from the pool.
+     */
+    private Mat findChestCandidates(final AnalysisContext context, final Rect part) {
+        MatPool pool = context.getCamera().getMatPool();
+        Rect region = context.getRegion();
+        Mat candidates = pool.borrow(region.height, region.width, CvType.CV_8UC1);
+        Mat hsv = pool.borrow(region.height, region.width, CvType.CV_8UC3);
+        candidates.setTo(BLACK);
+
+        Mat framePart = context.getFrame().submat(new Rect(region.x + part.x,
+            region.y + part.y, part.width, part.height));
+        Mat hsvPart = hsv.submat(part);
+        Mat candidatesPart = candidates.submat(part);
+        bgrToHsv(framePart, hsvPart);
+        getChestsFromFrame(hsvPart, candidatesPart);
+
+        framePart.release();
+        hsvPart.release();
+        candidatesPart.release();
+        pool.recycle(hsv);
+        return candidates;
+    }
+
+    /**
+     * Method that calculates the bounding box of the foreground, enlarged by a margin and
+     * by the tracked chests it overlaps, so these chests are searched as a whole.
+     *
+     * @param subtraction the non-empty foreground of the region of interest.
+     * @param camera the camera that generated the frame
+     * @return the bounding box within the region of interest.
+     */
+    private Rect getMotionBounds(final Mat subtraction, final Camera camera) {
+        int[] columns = getExtent(subtraction, 0, camera.getMatPool());
+        int[] rows = getExtent(subtraction, 1, camera.getMatPool());
+        int margin = Math.max(subtraction.cols(), subtraction.rows()) / MOTION_MARGIN_RATIO;
+        Rect motion = new Rect(new Point(columns[0] - margin, rows[0] - margin),
+            new Point(columns[1] + 1 + margin, rows[1] + 1 + margin));
+        for (TrackedChest chest : camera.getTracker().getTrackedChests()) {
+            Rect rect = chest.getRect();
+            if (CameraChestTracker.intersects(rect, motion)) {
+                motion = new Rect(new Point(Math.min(motion.x, rect.x), Math.min(motion.y, rect.y)),
+                    new Point(Math.max(motion.br().x, rect.br().x),
+                        Math.max(motion.br().y, rect.br().y)));
+            }
+        }
+        return new Rect(new Point(Math.max(0, motion.x), Math.max(0, motion.y)),
+            new Point(Math.min(subtraction.cols(), motion.br().x),
+                Math.min(subtraction.rows(), motion.br().y)));
+    }
+
+    /**
+     * Method that finds the first and last column or row of a non-empty mask with a white pixel.
+     *
+     * @param mask the black/white mask.
+     * @param dimension 0 for the columns, 1 for the rows.
+     * @param pool the pool the reduced mask is borrowed from.
+     * @return the first and the last index.
+     */
+    private int[] getExtent(final Mat mask, final int dimension, final MatPool pool) {
+        int rows = mask.rows();
+        int cols = 1;
+        if (dimension == 0) {
+            rows = 1;
+            cols = mask.cols();
+        }
+        Mat reduced = pool.borrow(rows, cols, CvType.CV_8UC1);
+        Core.reduce(mask, reduced, dimension, Core.REDUCE_MAX);
+        byte[] values = new byte[(int) reduced.total()];
+        reduced.get(0, 0, values);
+        pool.recycle(reduced);
+        return new int[] {findNonZero(values, 0, 1), findNonZero(values, values.length - 1, -1)};
+    }
+
+    /**
+     * Method that finds the first value that is not zero, walking from an index in a direction.
+     *
+     * @param values the values, of which at least one is not zero.
+     * @param start the index to start at.
+     * @param step 1 to walk forward, -1 to walk backward.
+     * @return the index of the value.
+     */
+    private int findNonZero(final byte[] values, final int start, final int step) {
+        int index = start;
+        while (values[index] == 0) {
+            index += step;
+        }
+        return index;
+    }
+
+    /**
+     * Method that tracks the chest candidates and removes the candidates that are tracked already.
+     *
+     * @param candidates the black/white frame of the chest candidates.
+     * @param camera the camera that generated the frame
+     * @param observed the part of the frame that was searched for chest candidates.
+     * @return the black/white frame, which should be recycled in the pool of the camera.
+     */
+    private Mat trackChestCandidates(final Mat candidates, final Camera camera,
+                                     final Rect observed) {
+        camera.maskRegionOfInterest(candidates);
+
+        long start = System.nanoTime();
+        Mat tracked = camera.getTracker().trackChests(candidates, minChestArea, observed);
+        camera.getMetrics().record(CameraMetrics.Stage.TRACKING, start);
+        camera.getMatPool().recycle(candidates);
+        return tracked;
+    }
+
     /**
      * Method that detects a chest if the coloured inside of a chest
      * is visible in at least 100 pixels.
@@ -57,42 +266,53 @@ public class CameraChestDetector extends CameraObjectDetector {
      * @param image Black/White image where white corresponds to the BOXCOLOUR regions
      */
     private void detectChest(final Mat image) {
-        isOpened = Core.countNonZero(image) > MIN_CHEST_AREA;
+        isOpened = Core.countNonZero(image) > minChestArea;
     }
 
     /**
      * Method that draws bounding boxes around all chests in a frame.
-     * @param frame the frame that needs bounding boxes.
+     * @param frame the frame at full resolution that needs bounding boxes.
      * @param blackWhiteChestFrame the frame that needs bounding boxes,
      *                            but the boxes are already found.
      *
-     * @return List of sub matrices in which a chest is found
+     * @return List of copies of the sub matrices in which a chest is found
      */
      private List<Mat> includeChestContoursInFrame(final Mat frame,
                                                     final Mat blackWhiteChestFrame) {
         List<Mat> detectedMats = new ArrayList<>();
         List<MatOfPoint> contours = new ArrayList<>();
-        Imgproc.findContours(blackWhiteChestFrame, contours, new Mat(),
+        Imgproc.findContours(blackWhiteChestFrame, contours, hierarchy,
             Imgproc.RETR_CCOMP, Imgproc.CHAIN_APPROX_SIMPLE);
 
         ArrayList<Rect> rects = new ArrayList<>();
         for (MatOfPoint contour: contours) {
 
             // Get bounding rect of contour
-            Rect newrect = Imgproc.boundingRect(new MatOfPoint(contour.toArray()));
+            Rect newrect = Imgproc.boundingRect(contour);
 
             // If not all spots are filled add newrect to the biggest rects.
-            if (newrect.area() > MIN_CHEST_AREA) {
+            if (newrect.area() > minChestArea) {
                 rects.add(newrect);
             }
         }
 
+        // Copy the cutouts, the frame itself is recycled after the detection.
         for (Rect rect : rects) {
-            detectedMats.add(frame.submat(calculateCutout(rect, frame)));
+            detectedMats.add(frame.submat(calculateCutout(scaleToFullFrame(rect), frame)).clone());
         }
         return detectedMats;
     }
 
+    /**
+     * Maps a rect found in the analysis frame to the frame at full resolution.
+     * @param rect the bounding box in the analysis frame
+     * @return the bounding box in the frame at full resolution
+     */
+    private Rect scaleToFullFrame(final Rect rect) {
+        return new Rect((int) (rect.x * cutoutScale), (int) (rect.y * cutoutScale),
+            (int) Math.ceil(rect.width * cutoutScale), (int) Math.ceil(rect.height * cutoutScale));
+    }
+
     /**
      * Calculates the rect boundaries, to cut out of the frame.
      * @param rect the bounding box around a chest
@@ -116,13 +336,10 @@ public class CameraChestDetector extends CameraObjectDetector {
     /**
      * Method that creates a black/white image of the frame showing the chest candidates in white.
      * @param hsvMatrix a frame in hsv colour space
-     * @return the black/white frame showing chest candidates
+     * @param dest the black/white frame showing chest candidates
      */
-    private Mat getChestsFromFrame(final Mat hsvMatrix) {
-        Mat dest = new Mat();
+    private void getChestsFromFrame(final Mat hsvMatrix, final Mat dest) {
         Core.inRange(hsvMatrix, CHEST_COLOUR_LOWER, CHEST_COLOUR_UPPER, dest);
-
-        return dest;
     }
 
 }
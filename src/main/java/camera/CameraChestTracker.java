@@ -3,9 +3,11 @@ package camera;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
 import org.opencv.imgproc.Imgproc;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,69 +16,215 @@ import java.util.List;
 public class CameraChestTracker {
 
     private static final int BOUNDING_BOX_INCREASE_SCREEN_RATIO = 16;
-    private List<MatOfPoint> previousContours;
+    private static final Scalar ZERO = new Scalar(0);
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int WIDTH = 2;
+    private static final int HEIGHT = 3;
+    private static final int RECT_FIELDS = 4;
+    private static final int MAX_MISSES = 5;
+    private int[] rects = new int[0];
+    private List<TrackedChest> trackedChests = new ArrayList<>();
+    private int nextId;
+    private RectGrid grid = new RectGrid();
+    private MatPool matPool;
+    private Mat hierarchy = new Mat();
 
     /**
-     * Method which removes areas from frame, if they have overlap with the previous frame.
+     * Constructor for the tracker.
+     * @param pool The pool the tracked frames are borrowed from.
+     */
+    public CameraChestTracker(final MatPool pool) {
+        matPool = pool;
+    }
+
+    /**
+     * Method which removes areas from frame, if they have overlap with a tracked chest.
+     * Afterwards the tracked chests are updated with the chests in the frame.
      * @param frame a black and white (1s and 0s) single channel frame
      * @param minChestArea The minimal area a rect has to be to be counted
-     * @return The frame with possible found areas removed
+     * @return The frame with possible found areas removed, borrowed from the pool
      */
     public Mat trackChests(final Mat frame, final double minChestArea) {
-        Mat tempFrame = frame.clone();
+        return trackChests(frame, minChestArea, new Rect(0, 0, frame.cols(), frame.rows()));
+    }
 
-        // Calculate the contours in frame
+    /**
+     * Method which removes areas from frame, if they have overlap with a tracked chest.
+     * Afterwards the tracked chests are updated with the chests in the observed part of the frame,
+     * the chests outside of it are not expected to be measured and keep their state.
+     * @param frame a black and white (1s and 0s) single channel frame
+     * @param minChestArea The minimal area a rect has to be to be counted
+     * @param observed The part of the frame that was searched for chests
+     * @return The frame with possible found areas removed, borrowed from the pool
+     */
+    public Mat trackChests(final Mat frame, final double minChestArea, final Rect observed) {
+        Mat tempFrame = matPool.borrow(frame);
+        frame.copyTo(tempFrame);
+
+        // Calculate the bounding rects of the contours in frame
         List<MatOfPoint> contoursFrame = new ArrayList<>();
         Imgproc.findContours(tempFrame, contoursFrame,
-            new Mat(), Imgproc.RETR_CCOMP, Imgproc.CHAIN_APPROX_SIMPLE);
+            hierarchy, Imgproc.RETR_CCOMP, Imgproc.CHAIN_APPROX_SIMPLE);
+        int count = storeBoundingRects(contoursFrame);
 
-        if (previousContours != null) {
-            // Checks if there is a chest in the tempFrame
-            // that has overlap with a chest in the previous frame.
-            // if such a chest exists it will be removed from tempFrame
-            checkForOverlap(contoursFrame, minChestArea, tempFrame);
+        for (TrackedChest chest : trackedChests) {
+            if (intersects(chest.getRect(), observed)) {
+                chest.predict();
+            }
         }
-        previousContours = contoursFrame;
+        // Checks if there is a chest in the tempFrame
+        // that has overlap with a tracked chest.
+        // if such a chest exists it will be removed from tempFrame
+        checkForOverlap(count, minChestArea, tempFrame);
+        updateTrackedChests(count, minChestArea, tempFrame);
 
         return tempFrame;
     }
 
     /**
-     * Check for overlap between chests in subsequent frames.
-     * @param contoursFrame a frame that shows contours
+     * Store the bounding rects of the contours as x, y, width and height in rects.
+     * The contours are released afterwards.
+     * @param contours the contours of the current frame
+     * @return the amount of bounding rects
+     */
+    private int storeBoundingRects(final List<MatOfPoint> contours) {
+        if (rects.length < contours.size() * RECT_FIELDS) {
+            rects = new int[contours.size() * RECT_FIELDS * 2];
+        }
+        int offset = 0;
+        for (MatOfPoint contour : contours) {
+            Rect rect = Imgproc.boundingRect(contour);
+            rects[offset + X] = rect.x;
+            rects[offset + Y] = rect.y;
+            rects[offset + WIDTH] = rect.width;
+            rects[offset + HEIGHT] = rect.height;
+            offset += RECT_FIELDS;
+            contour.release();
+        }
+        return contours.size();
+    }
+
+    /**
+     * Check for overlap between chests in the frame and the tracked chests.
+     * The tracked chests are enlarged and put in a grid,
+     * so every chest of the current frame is only compared to the chests near it.
+     * @param count the amount of bounding rects of the current frame
      * @param minChestArea the minimum size of chest area
      * @param tempFrame clone of the current frame
      */
-    private void checkForOverlap(final List<MatOfPoint> contoursFrame,
-                                 final double minChestArea, final Mat tempFrame) {
-        for (MatOfPoint points : contoursFrame) {
-            Rect rect = Imgproc.boundingRect(new MatOfPoint(points.toArray()));
-            if (rect.area() >= minChestArea) {
-                for (MatOfPoint points2 : previousContours) {
-                    Rect rect2 = Imgproc.boundingRect(new MatOfPoint(points2.toArray()));
-                    if (rect2.area() >= minChestArea) {
-                        compareRects(rect, rect2, tempFrame);
-                    }
-                }
+    private void checkForOverlap(final int count, final double minChestArea,
+                                 final Mat tempFrame) {
+        // Increase the area in which overlap could be found
+        int widthIncrease = tempFrame.width() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
+        int heightIncrease = tempFrame.height() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
+        grid.clear();
+        for (TrackedChest chest : trackedChests) {
+            Rect rect = chest.getRect();
+            grid.add(rect.x, rect.y, rect.width + widthIncrease, rect.height + heightIncrease);
+        }
+        grid.build(tempFrame.width(), tempFrame.height(), Math.max(widthIncrease, heightIncrease));
+
+        for (int i = 0; i < count * RECT_FIELDS; i += RECT_FIELDS) {
+            if (isChest(rects, i, minChestArea) && grid.overlapsAny(rects[i + X], rects[i + Y],
+                rects[i + WIDTH], rects[i + HEIGHT])) {
+                setRectToZerosInFrame(tempFrame, new Rect(rects[i + X], rects[i + Y],
+                    rects[i + WIDTH], rects[i + HEIGHT]));
             }
         }
     }
 
     /**
-     * Compares two rects.
-     * If they have overlap then tempFrame is adjusted to remove overlapping areas.
-     * @param rect The first rect (from the current frame)
-     * @param rect2 The second rect (from the previous frame)
-     * @param tempFrame the frame that tracks chests
+     * Update the tracked chests with the chests in the frame.
+     * Every chest is given to the overlapping tracked chest with the highest
+     * intersection over union, chests without one are tracked as new chests.
+     * Tracked chests that are missed in too many frames are removed.
+     * @param count the amount of bounding rects of the current frame
+     * @param minChestArea the minimum size of chest area
+     * @param tempFrame clone of the current frame
      */
-    private void compareRects(final Rect rect, final Rect rect2, final Mat tempFrame) {
-            // Increase the area in which overlap could be found
-            rect2.width += tempFrame.width() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
-            rect2.height += tempFrame.height() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
+    private void updateTrackedChests(final int count, final double minChestArea,
+                                     final Mat tempFrame) {
+        int widthIncrease = tempFrame.width() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
+        int heightIncrease = tempFrame.height() / BOUNDING_BOX_INCREASE_SCREEN_RATIO;
+        int tracked = trackedChests.size();
+        for (int i = 0; i < count * RECT_FIELDS; i += RECT_FIELDS) {
+            if (isChest(rects, i, minChestArea)) {
+                TrackedChest chest = findTrackedChest(i, tracked, widthIncrease, heightIncrease);
+                if (chest == null) {
+                    trackedChests.add(new TrackedChest(nextId++, rects[i + X], rects[i + Y],
+                        rects[i + WIDTH], rects[i + HEIGHT]));
+                } else {
+                    chest.update(rects[i + X], rects[i + Y], rects[i + WIDTH], rects[i + HEIGHT]);
+                }
+            }
+        }
+        trackedChests.removeIf(chest -> chest.getMisses() > MAX_MISSES);
+    }
 
-            if (doOverlap(rect, rect2)) {
-                setRectToZerosInFrame(tempFrame, rect);
+    /**
+     * Find the tracked chest that is not updated yet in this frame and overlaps
+     * a bounding rect with the highest intersection over union.
+     * @param offset the offset of the bounding rect in rects
+     * @param tracked the amount of chests that were tracked before this frame
+     * @param widthIncrease the increase of the width of the tracked chests
+     * @param heightIncrease the increase of the height of the tracked chests
+     * @return the tracked chest, null if no tracked chest overlaps
+     */
+    private TrackedChest findTrackedChest(final int offset, final int tracked,
+                                          final int widthIncrease, final int heightIncrease) {
+        TrackedChest best = null;
+        double bestOverlap = -1;
+        for (int j = 0; j < tracked; j++) {
+            TrackedChest chest = trackedChests.get(j);
+            Rect rect = chest.getRect();
+            double overlap = chest.intersectionOverUnion(rects[offset + X], rects[offset + Y],
+                rects[offset + WIDTH], rects[offset + HEIGHT]);
+            if (chest.getMisses() > 0 && overlap > bestOverlap
+                && doOverlap(offset, rect, widthIncrease, heightIncrease)) {
+                best = chest;
+                bestOverlap = overlap;
             }
+        }
+        return best;
+    }
+
+    /**
+     * Method that checks if a bounding rect overlaps or touches an enlarged rect.
+     * @param offset the offset of the bounding rect in rects
+     * @param rect the rect
+     * @param widthIncrease the increase of the width of the rect
+     * @param heightIncrease the increase of the height of the rect
+     * @return true iff the bounding rect has overlap with the enlarged rect, false otherwise.
+     */
+    private boolean doOverlap(final int offset, final Rect rect,
+                              final int widthIncrease, final int heightIncrease) {
+        return rects[offset + X] + rects[offset + WIDTH] >= rect.x
+            && rects[offset + X] <= rect.x + rect.width + widthIncrease
+            && rects[offset + Y] + rects[offset + HEIGHT] >= rect.y
+            && rects[offset + Y] <= rect.y + rect.height + heightIncrease;
+    }
+
+    /**
+     * Method that checks if two rects have overlap.
+     * @param rect the first rect
+     * @param other the second rect
+     * @return true iff the rects have overlap, false otherwise.
+     */
+    static boolean intersects(final Rect rect, final Rect other) {
+        return rect.x < other.x + other.width && other.x < rect.x + rect.width
+            && rect.y < other.y + other.height && other.y < rect.y + rect.height;
+    }
+
+    /**
+     * Check if a stored bounding rect is big enough to be a chest.
+     * @param array the array with the bounding rects
+     * @param offset the offset of the bounding rect in the array
+     * @param minChestArea the minimum size of chest area
+     * @return true if the area of the rect is at least minChestArea
+     */
+    private boolean isChest(final int[] array, final int offset, final double minChestArea) {
+        return (double) array[offset + WIDTH] * array[offset + HEIGHT] >= minChestArea;
     }
 
     /**
@@ -85,23 +233,18 @@ public class CameraChestTracker {
      * @param rect the position where zeros should be inserted
      */
     private void setRectToZerosInFrame(final Mat tempFrame, final Rect rect) {
-        if (tempFrame.submat(rect).isSubmatrix()) {
-            Mat zeros = Mat.zeros(rect.size(), tempFrame.type());
-            zeros.copyTo(tempFrame.submat(rect));
+        Mat area = tempFrame.submat(rect);
+        if (area.isSubmatrix()) {
+            area.setTo(ZERO);
         }
+        area.release();
     }
 
     /**
-     * Method that checks if two Rects overlap.
-     * @param r1    Rect 1
-     * @param r2    Rect 2
-     * @return  true iff rect1 has overlap with r2, false otherwise.
+     * Get the chests that are tracked in the analysed frames.
+     * @return The tracked chests.
      */
-    private Boolean doOverlap(final Rect r1, final Rect r2) {
-        if (r1.x + r1.width < r2.x || r1.x > r2.x + r2.width) {
-            return false;
-        }
-        return r1.y + r1.height >= r2.y && r1.y <= r2.y + r2.height;
+    public List<TrackedChest> getTrackedChests() {
+        return Collections.unmodifiableList(trackedChests);
     }
-
 }
@@ -0,0 +1,86 @@
+package camera;
+
+/**
+ * Class describing the configuration of a camera as found in the config file.
+ */
+public class CameraConfig {
+
+    /**
+     * The default analysis scale, the frames are analysed at full resolution.
+     */
+    public static final double DEFAULT_ANALYSIS_SCALE = 1;
+    private String link;
+    private double analysisScale = DEFAULT_ANALYSIS_SCALE;
+    private RegionOfInterest regionOfInterest;
+
+    /**
+     * Constructor for a camera configuration with default settings.
+     * @param newLink The link of the camera.
+     */
+    public CameraConfig(final String newLink) {
+        link = newLink;
+    }
+
+    /**
+     * Apply the settings of this configuration to a camera.
+     * Every camera gets its own copy of the region of interest, because the region caches
+     * its mask and cameras of the same configuration can be analysed in parallel.
+     * @param camera The camera.
+     */
+    public void applyTo(final Camera camera) {
+        camera.setAnalysisScale(analysisScale);
+        if (regionOfInterest == null) {
+            camera.setRegionOfInterest(null);
+        } else {
+            camera.setRegionOfInterest(new RegionOfInterest(regionOfInterest.getPolygon()));
+        }
+    }
+
+    /**
+     * Get the link of the camera.
+     * @return The link as a String.
+     */
+    public String getLink() {
+        return link;
+    }
+
+    /**
+     * Set the link of the camera, for example to analyse a recording instead.
+     * @param newLink The link as a String.
+     */
+    public void setLink(final String newLink) {
+        this.link = newLink;
+    }
+
+    /**
+     * Get the scale at which the frames of the camera are analysed.
+     * @return The analysis scale.
+     */
+    public double getAnalysisScale() {
+        return analysisScale;
+    }
+
+    /**
+     * Set the scale at which the frames of the camera are analysed.
+     * @param scale The analysis scale, 1 for full resolution.
+     */
+    public void setAnalysisScale(final double scale) {
+        this.analysisScale = scale;
+    }
+
+    /**
+     * Get the region in which chests are searched.
+     * @return The region of interest, null for the whole frame.
+     */
+    public RegionOfInterest getRegionOfInterest() {
+        return regionOfInterest;
+    }
+
+    /**
+     * Set the region in which chests are searched.
+     * @param region The region of interest, null for the whole frame.
+     */
+    public void setRegionOfInterest(final RegionOfInterest region) {
+        this.regionOfInterest = region;
+    }
+}
@@ -0,0 +1,77 @@
+package camera;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Class with the latency of every stage of the frame path of a camera.
+ */
+public class CameraMetrics {
+
+    /**
+     * The stages of the frame path that are timed.
+     */
+    public enum Stage {
+        /**
+         * Decoding a frame from the video.
+         */
+        CAPTURE,
+        /**
+         * Copying a frame for the analysis.
+         */
+        COPY,
+        /**
+         * Downscaling a frame for the analysis.
+         */
+        SCALE,
+        /**
+         * Measuring the activity in a frame.
+         */
+        ACTIVITY,
+        /**
+         * Subtracting the background of a frame.
+         */
+        SUBTRACTION,
+        /**
+         * Detecting chests in a frame, including the tracking.
+         */
+        DETECTION,
+        /**
+         * Removing chests that were already in the previous frame.
+         */
+        TRACKING,
+        /**
+         * Rendering a frame in the user interface.
+         */
+        RENDER
+    }
+
+    private Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+
+    /**
+     * Constructor for the metrics, with an empty histogram for every stage.
+     */
+    public CameraMetrics() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Record the latency of a stage that started at a time.
+     * @param stage The stage.
+     * @param startNanos The start of the stage as given by System.nanoTime.
+     */
+    public void record(final Stage stage, final long startNanos) {
+        histograms.get(stage).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Get the histogram of a stage.
+     * @param stage The stage.
+     * @return The histogram.
+     */
+    public LatencyHistogram getHistogram(final Stage stage) {
+        return histograms.get(stage);
+    }
+}
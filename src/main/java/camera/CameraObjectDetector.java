@@ -21,10 +21,19 @@ public abstract class CameraObjectDetector {
      */
     public Mat bgrToHsv(final Mat mat) {
         Mat hsv = new Mat();
-        Imgproc.cvtColor(mat, hsv, Imgproc.COLOR_BGR2HSV);
+        bgrToHsv(mat, hsv);
         return hsv;
     }
 
+    /**
+     * Method that changes colourspaces of a Mat from BGR to HSV into an existing Mat.
+     * @param mat matrix to be converted to hsv colour space
+     * @param hsv the matrix the hsv colour space representation is written in
+     */
+    public void bgrToHsv(final Mat mat, final Mat hsv) {
+        Imgproc.cvtColor(mat, hsv, Imgproc.COLOR_BGR2HSV);
+    }
+
     /**
      * Subtracts the subtractor frame from the frame, returns a black and white image where white
      * pixels are new pixels.
@@ -34,9 +43,18 @@ public abstract class CameraObjectDetector {
     public synchronized Mat subtractFrame(final Mat frame) {
         Mat subtraction = new Mat();
 
-        knn.apply(frame, subtraction);
+        subtractFrame(frame, subtraction);
 
         return subtraction;
     }
 
+    /**
+     * Subtracts the subtractor frame from the frame into an existing Mat.
+     * @param frame The frame to be subtracted.
+     * @param subtraction The Mat the black and white result is written in.
+     */
+    public synchronized void subtractFrame(final Mat frame, final Mat subtraction) {
+        knn.apply(frame, subtraction);
+    }
+
 }
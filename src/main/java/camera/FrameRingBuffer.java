@@ -0,0 +1,112 @@
+package camera;
+
+import org.opencv.core.Mat;
+
+/**
+ * Class for a bounded ring of preallocated frames.
+ * A capture thread decodes into the slots of the ring, a reader copies the completed slots out.
+ */
+public class FrameRingBuffer {
+
+    /**
+     * Default amount of slots in a ring.
+     */
+    public static final int DEFAULT_CAPACITY = 3;
+    private static final int MIN_CAPACITY = 2;
+    private Mat[] slots;
+    private boolean lossless;
+    private long written = 0;
+    private long read = 0;
+    private long dropped = 0;
+    private boolean closed = false;
+
+    /**
+     * Constructor for the ring.
+     * A lossless ring lets the writer wait for the reader, otherwise only the newest frame is read.
+     *
+     * @param capacity The amount of slots.
+     * @param losslessRing True if no frames may be dropped.
+     */
+    public FrameRingBuffer(final int capacity, final boolean losslessRing) {
+        slots = new Mat[Math.max(MIN_CAPACITY, capacity)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Mat();
+        }
+        lossless = losslessRing;
+    }
+
+    /**
+     * Get the slot the next frame should be written in.
+     * For a lossless ring this waits until the reader has made room.
+     *
+     * @return The Mat of the slot.
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public synchronized Mat nextWriteSlot() throws InterruptedException {
+        while (lossless && !closed && written - read >= slots.length) {
+            wait();
+        }
+        return slots[(int) (written % slots.length)];
+    }
+
+    /**
+     * Publish the slot returned by nextWriteSlot, so it can be read.
+     */
+    public synchronized void publish() {
+        written++;
+        notifyAll();
+    }
+
+    /**
+     * Copy the next completed frame into the target.
+     * Frames older than the newest one are skipped when the ring is not lossless.
+     *
+     * @param target The Mat to copy the frame into.
+     * @return True if a frame was copied, false if there was no new frame.
+     */
+    public synchronized boolean readInto(final Mat target) {
+        if (written == read) {
+            return false;
+        }
+        if (!lossless) {
+            dropped += written - read - 1;
+            read = written - 1;
+        }
+        slots[(int) (read % slots.length)].copyTo(target);
+        read++;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Close the ring, a waiting writer will not wait anymore.
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Get the amount of completed frames that are not read yet.
+     * @return The amount of frames.
+     */
+    public synchronized long getAvailableFrames() {
+        return written - read;
+    }
+
+    /**
+     * Get the amount of frames that are skipped by the reader.
+     * @return The amount of dropped frames.
+     */
+    public synchronized long getDroppedFrames() {
+        return dropped;
+    }
+
+    /**
+     * Get the amount of slots in the ring.
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+}
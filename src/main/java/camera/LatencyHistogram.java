@@ -0,0 +1,110 @@
+package camera;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, like an HDR histogram.
+ * Every power of two is split in 16 buckets, so a percentile is accurate within about 6%.
+ * Recording is lock-free and does not allocate, so it can be done from any thread.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private AtomicLong count = new AtomicLong();
+    private AtomicLong total = new AtomicLong();
+    private AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a latency.
+     * @param nanos The latency in nanoseconds, negative values are recorded as 0.
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long previous = max.get();
+        while (value > previous && !max.compareAndSet(previous, value)) {
+            previous = max.get();
+        }
+    }
+
+    /**
+     * Get the bucket of a value.
+     * @param value The value, not negative.
+     * @return The index of the bucket.
+     */
+    private static int bucket(final long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Get the highest value that is counted in a bucket.
+     * @param bucket The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long highestValue(final int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Get the latency below which a percentage of the latencies fall.
+     * @param percentile The percentage, between 0 and 100.
+     * @return The latency in nanoseconds, 0 if nothing is recorded.
+     */
+    public long getPercentile(final double percentile) {
+        final double hundred = 100;
+        long recorded = count.get();
+        long target = Math.max(1, (long) Math.ceil(recorded * percentile / hundred));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && recorded > 0; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the amount of recorded latencies.
+     * @return The amount of latencies.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the mean latency.
+     * @return The mean in nanoseconds, 0 if nothing is recorded.
+     */
+    public double getMean() {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        return (double) total.get() / recorded;
+    }
+
+    /**
+     * Get the highest recorded latency.
+     * @return The highest latency in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+}
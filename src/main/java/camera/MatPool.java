@@ -0,0 +1,140 @@
+package camera;
+
+import org.opencv.core.Mat;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class for a pool of reusable matrices, kept apart by size and type.
+ * A borrowed Mat should be recycled exactly once, after nobody uses it anymore.
+ */
+public class MatPool {
+
+    /**
+     * Default amount of idle matrices kept per size and type.
+     */
+    public static final int DEFAULT_IDLE_PER_SIZE = 4;
+    private static final int ROWS_SHIFT = 32;
+    private static final int COLS_SHIFT = 16;
+    private static final int TYPE_MASK = 0xFFFF;
+    private Map<Long, Deque<Mat>> idle = new HashMap<>();
+    private int maxIdlePerSize;
+    private long created = 0;
+    private long reused = 0;
+    private long released = 0;
+
+    /**
+     * Constructor for a pool with the default amount of idle matrices.
+     */
+    public MatPool() {
+        this(DEFAULT_IDLE_PER_SIZE);
+    }
+
+    /**
+     * Constructor for the pool.
+     * @param maxIdle The amount of idle matrices kept per size and type.
+     */
+    public MatPool(final int maxIdle) {
+        maxIdlePerSize = maxIdle;
+    }
+
+    /**
+     * Borrow a Mat with the given size and type.
+     * @param rows The amount of rows.
+     * @param cols The amount of columns.
+     * @param type The OpenCV type.
+     * @return An idle Mat from the pool, or a new one if there is none.
+     */
+    public synchronized Mat borrow(final int rows, final int cols, final int type) {
+        Deque<Mat> mats = idle.get(key(rows, cols, type));
+        if (mats != null && !mats.isEmpty()) {
+            reused++;
+            return mats.pop();
+        }
+        created++;
+        return new Mat(rows, cols, type);
+    }
+
+    /**
+     * Borrow a Mat with the same size and type as another Mat.
+     * @param like The Mat to take the size and type from.
+     * @return An idle Mat from the pool, or a new one if there is none.
+     */
+    public Mat borrow(final Mat like) {
+        return borrow(like.rows(), like.cols(), like.type());
+    }
+
+    /**
+     * Give a borrowed Mat back to the pool.
+     * The native memory is released when the pool already holds enough of this size.
+     * @param mat The Mat to recycle.
+     */
+    public synchronized void recycle(final Mat mat) {
+        if (mat == null) {
+            return;
+        }
+        if (mat.empty() || mat.isSubmatrix()) {
+            mat.release();
+            return;
+        }
+        Deque<Mat> mats = idle.computeIfAbsent(key(mat.rows(), mat.cols(), mat.type()),
+            size -> new ArrayDeque<>());
+        if (mats.size() >= maxIdlePerSize) {
+            mat.release();
+            released++;
+        } else {
+            mats.push(mat);
+        }
+    }
+
+    /**
+     * Release all idle matrices of the pool.
+     */
+    public synchronized void clear() {
+        for (Deque<Mat> mats : idle.values()) {
+            for (Mat mat : mats) {
+                mat.release();
+                released++;
+            }
+        }
+        idle.clear();
+    }
+
+    /**
+     * Create the key of a size and type.
+     * @param rows The amount of rows.
+     * @param cols The amount of columns.
+     * @param type The OpenCV type.
+     * @return The key.
+     */
+    private static long key(final int rows, final int cols, final int type) {
+        return ((long) rows << ROWS_SHIFT) | ((long) cols << COLS_SHIFT) | (type & TYPE_MASK);
+    }
+
+    /**
+     * Get the amount of matrices created by the pool.
+     * @return The amount of created matrices.
+     */
+    public synchronized long getCreated() {
+        return created;
+    }
+
+    /**
+     * Get the amount of times an idle Mat was borrowed again.
+     * @return The amount of reused matrices.
+     */
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    /**
+     * Get the amount of matrices released by the pool.
+     * @return The amount of released matrices.
+     */
+    public synchronized long getReleased() {
+        return released;
+    }
+}
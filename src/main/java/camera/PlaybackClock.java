@@ -0,0 +1,61 @@
+package camera;
+
+/**
+ * Clock that decides when the next frame of a video is due, so the video plays at its own
+ * frame rate instead of as fast as its frames are asked for.
+ * The first frame is due right away. When the decoder falls behind, the clock is moved,
+ * so the video continues at its frame rate from the late frame on instead of catching up.
+ */
+public class PlaybackClock {
+
+    /**
+     * The frame rate used when the video does not know its frame rate.
+     */
+    public static final double DEFAULT_FRAME_RATE = 25;
+    private static final double NANOS = 1e9;
+    private long frameInterval;
+    private long start = -1;
+
+    /**
+     * Constructor for the clock of a video.
+     * @param frameRate The frame rate of the video, the default is used when it is not positive.
+     */
+    public PlaybackClock(final double frameRate) {
+        double rate = DEFAULT_FRAME_RATE;
+        if (frameRate > 0) {
+            rate = frameRate;
+        }
+        frameInterval = Math.round(NANOS / rate);
+    }
+
+    /**
+     * Check if a frame is due, the clock starts with the first frame that is checked.
+     * @param frame The index of the frame.
+     * @param now The current time in nanoseconds.
+     * @return True if the frame should be shown.
+     */
+    public boolean isDue(final int frame, final long now) {
+        if (start < 0) {
+            start = now - frame * frameInterval;
+        }
+        return now - start >= frame * frameInterval;
+    }
+
+    /**
+     * Move the clock because a frame that was due is not decoded yet,
+     * so that frame is due when it is decoded and the frames after it follow at the frame rate.
+     * @param frame The index of the late frame.
+     * @param now The current time in nanoseconds.
+     */
+    public void late(final int frame, final long now) {
+        start = now - frame * frameInterval;
+    }
+
+    /**
+     * Get the time between two frames.
+     * @return The interval in nanoseconds.
+     */
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+}
@@ -0,0 +1,180 @@
+package camera;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid of rectangles stored in primitive arrays, to find overlapping rectangles
+ * without comparing every pair. The arrays are reused, so after the first frames
+ * building and querying the grid does not allocate.
+ */
+public class RectGrid {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private int[] xs = new int[INITIAL_CAPACITY];
+    private int[] ys = new int[INITIAL_CAPACITY];
+    private int[] widths = new int[INITIAL_CAPACITY];
+    private int[] heights = new int[INITIAL_CAPACITY];
+    private int size;
+    private int cellSize = 1;
+    private int columns;
+    private int rows;
+    private int[] cellStart = new int[1];
+    private int[] cellItems = new int[INITIAL_CAPACITY];
+
+    /**
+     * Remove all rectangles.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Add a rectangle, it can be found after the next build.
+     * @param x The x of the top left corner.
+     * @param y The y of the top left corner.
+     * @param width The width.
+     * @param height The height.
+     */
+    public void add(final int x, final int y, final int width, final int height) {
+        if (size == xs.length) {
+            int capacity = size * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        widths[size] = width;
+        heights[size] = height;
+        size++;
+    }
+
+    /**
+     * Put the added rectangles in the cells of the grid.
+     * @param frameWidth The width of the area the grid covers.
+     * @param frameHeight The height of the area the grid covers.
+     * @param newCellSize The width and height of a cell.
+     */
+    public void build(final int frameWidth, final int frameHeight, final int newCellSize) {
+        cellSize = Math.max(1, newCellSize);
+        columns = frameWidth / cellSize + 1;
+        rows = frameHeight / cellSize + 1;
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        }
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+
+        // Count the rectangles per cell, then put them in the cells.
+        for (int i = 0; i < size; i++) {
+            forEachCell(i, false);
+        }
+        putAll(cells);
+    }
+
+    /**
+     * Turn the counts of the cells into end positions and put the rectangles in the cells.
+     * @param cells The amount of cells.
+     */
+    private void putAll(final int cells) {
+        for (int cell = 1; cell <= cells; cell++) {
+            cellStart[cell] += cellStart[cell - 1];
+        }
+        if (cellItems.length < cellStart[cells]) {
+            cellItems = new int[cellStart[cells] * 2];
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            forEachCell(i, true);
+        }
+    }
+
+    /**
+     * Count a rectangle in, or put it in, every cell it covers.
+     * When counting, the count of a cell is kept in its start position.
+     * When putting, the end of the cell is moved back to make room for the rectangle,
+     * so after all rectangles are put it is the start of the cell again.
+     * @param index The index of the rectangle.
+     * @param put True to put the rectangle in the cells, false to count it.
+     */
+    private void forEachCell(final int index, final boolean put) {
+        for (int row = row(ys[index]); row <= row(ys[index] + heights[index]); row++) {
+            for (int column = column(xs[index]);
+                 column <= column(xs[index] + widths[index]); column++) {
+                int cell = row * columns + column;
+                if (put) {
+                    cellStart[cell]--;
+                    cellItems[cellStart[cell]] = index;
+                } else {
+                    cellStart[cell]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a rectangle overlaps or touches any rectangle in the grid at the last build.
+     * @param x The x of the top left corner.
+     * @param y The y of the top left corner.
+     * @param width The width.
+     * @param height The height.
+     * @return True if there is overlap, false otherwise.
+     */
+    public boolean overlapsAny(final int x, final int y, final int width, final int height) {
+        if (columns == 0) {
+            return false;
+        }
+        for (int row = row(y); row <= row(y + height); row++) {
+            for (int column = column(x); column <= column(x + width); column++) {
+                int cell = row * columns + column;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    if (overlaps(cellItems[i], x, y, width, height)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a rectangle in the grid overlaps or touches a rectangle.
+     * @param index The index of the rectangle in the grid.
+     * @param x The x of the top left corner.
+     * @param y The y of the top left corner.
+     * @param width The width.
+     * @param height The height.
+     * @return True if there is overlap, false otherwise.
+     */
+    private boolean overlaps(final int index, final int x, final int y,
+                             final int width, final int height) {
+        return x + width >= xs[index] && x <= xs[index] + widths[index]
+            && y + height >= ys[index] && y <= ys[index] + heights[index];
+    }
+
+    /**
+     * Get the column of an x coordinate, coordinates outside the grid are clamped.
+     * @param x The x coordinate.
+     * @return The column.
+     */
+    private int column(final int x) {
+        return Math.max(0, Math.min(x / cellSize, columns - 1));
+    }
+
+    /**
+     * Get the row of a y coordinate, coordinates outside the grid are clamped.
+     * @param y The y coordinate.
+     * @return The row.
+     */
+    private int row(final int y) {
+        return Math.max(0, Math.min(y / cellSize, rows - 1));
+    }
+
+    /**
+     * Get the amount of rectangles.
+     * @return The amount of rectangles.
+     */
+    public int size() {
+        return size;
+    }
+}
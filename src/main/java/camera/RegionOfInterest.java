@@ -0,0 +1,109 @@
+package camera;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class for the region of a camera in which chests can be found, as a polygon.
+ * Only the bounding box of the polygon is analysed and the pixels outside the polygon
+ * are masked out. The points are in pixels of the frame at full resolution.
+ */
+public class RegionOfInterest {
+
+    private static final Scalar WHITE = new Scalar(255);
+    private static final int MIN_POINTS = 3;
+    private List<Point> polygon;
+    private Rect bounds;
+    private Mat mask;
+    private double maskScale;
+
+    /**
+     * Constructor for the region of interest.
+     * @param points The corners of the polygon, at least three.
+     */
+    public RegionOfInterest(final List<Point> points) {
+        if (points.size() < MIN_POINTS) {
+            throw new IllegalArgumentException("A region of interest needs at least 3 points");
+        }
+        polygon = new ArrayList<>(points);
+        double left = Double.MAX_VALUE;
+        double top = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE;
+        double bottom = -Double.MAX_VALUE;
+        for (Point point : points) {
+            left = Math.min(left, point.x);
+            top = Math.min(top, point.y);
+            right = Math.max(right, point.x);
+            bottom = Math.max(bottom, point.y);
+        }
+        bounds = new Rect((int) left, (int) top,
+            (int) Math.ceil(right - left) + 1, (int) Math.ceil(bottom - top) + 1);
+    }
+
+    /**
+     * Get the bounding box of the polygon in a frame.
+     * @param frame The frame.
+     * @param scale The scale of the frame compared to the full resolution.
+     * @return The bounding box, inside the frame.
+     */
+    public Rect getBounds(final Mat frame, final double scale) {
+        int x = Math.max(0, Math.min((int) (bounds.x * scale), frame.cols() - 1));
+        int y = Math.max(0, Math.min((int) (bounds.y * scale), frame.rows() - 1));
+        int right = Math.min((int) Math.ceil((bounds.x + bounds.width) * scale), frame.cols());
+        int bottom = Math.min((int) Math.ceil((bounds.y + bounds.height) * scale), frame.rows());
+        return new Rect(x, y, Math.max(1, right - x), Math.max(1, bottom - y));
+    }
+
+    /**
+     * Set the pixels outside the polygon to zero in the bounding box of a frame.
+     * @param boxFrame The single channel bounding box of a frame, as returned by getBounds.
+     * @param scale The scale of the frame compared to the full resolution.
+     */
+    public void apply(final Mat boxFrame, final double scale) {
+        if (mask == null || mask.rows() != boxFrame.rows() || mask.cols() != boxFrame.cols()
+            || maskScale != scale) {
+            createMask(boxFrame.rows(), boxFrame.cols(), scale);
+        }
+        Core.bitwise_and(boxFrame, mask, boxFrame);
+    }
+
+    /**
+     * Draw the polygon in the mask.
+     * @param rows The rows of the bounding box.
+     * @param cols The columns of the bounding box.
+     * @param scale The scale of the frame compared to the full resolution.
+     */
+    private void createMask(final int rows, final int cols, final double scale) {
+        int offsetX = Math.max(0, (int) (bounds.x * scale));
+        int offsetY = Math.max(0, (int) (bounds.y * scale));
+        Point[] points = new Point[polygon.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(polygon.get(i).x * scale - offsetX,
+                polygon.get(i).y * scale - offsetY);
+        }
+        if (mask != null) {
+            mask.release();
+        }
+        mask = Mat.zeros(rows, cols, CvType.CV_8UC1);
+        Imgproc.fillPoly(mask, Collections.singletonList(new MatOfPoint(points)), WHITE);
+        maskScale = scale;
+    }
+
+    /**
+     * Get the corners of the polygon.
+     * @return The corners.
+     */
+    public List<Point> getPolygon() {
+        return Collections.unmodifiableList(polygon);
+    }
+}
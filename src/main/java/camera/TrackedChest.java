@@ -0,0 +1,123 @@
+package camera;
+
+import org.opencv.core.Rect;
+
+/**
+ * Class for a chest that is followed over the analysed frames of a camera.
+ * The position is predicted with a constant velocity and corrected with every
+ * measurement, like a simplified Kalman filter (an alpha-beta filter).
+ */
+public class TrackedChest {
+
+    private static final double POSITION_GAIN = 0.5;
+    private static final double VELOCITY_GAIN = 0.2;
+    private int id;
+    private double x;
+    private double y;
+    private double width;
+    private double height;
+    private double velocityX;
+    private double velocityY;
+    private int hits = 1;
+    private int misses;
+
+    /**
+     * Constructor for a tracked chest at its first measurement.
+     * @param newId The id of the chest.
+     * @param newX The x of the top left corner.
+     * @param newY The y of the top left corner.
+     * @param newWidth The width.
+     * @param newHeight The height.
+     */
+    public TrackedChest(final int newId, final int newX, final int newY,
+                        final int newWidth, final int newHeight) {
+        id = newId;
+        x = newX;
+        y = newY;
+        width = newWidth;
+        height = newHeight;
+    }
+
+    /**
+     * Move the chest to where it is expected in the next analysed frame.
+     * Until it is measured again the chest counts as missed.
+     */
+    public void predict() {
+        x += velocityX;
+        y += velocityY;
+        misses++;
+    }
+
+    /**
+     * Correct the predicted position with a measurement.
+     * @param newX The measured x of the top left corner.
+     * @param newY The measured y of the top left corner.
+     * @param newWidth The measured width.
+     * @param newHeight The measured height.
+     */
+    public void update(final int newX, final int newY, final int newWidth, final int newHeight) {
+        double residualX = newX - x;
+        double residualY = newY - y;
+        x += POSITION_GAIN * residualX;
+        y += POSITION_GAIN * residualY;
+        velocityX += VELOCITY_GAIN * residualX;
+        velocityY += VELOCITY_GAIN * residualY;
+        width += POSITION_GAIN * (newWidth - width);
+        height += POSITION_GAIN * (newHeight - height);
+        hits++;
+        misses = 0;
+    }
+
+    /**
+     * Calculate the intersection over union of the chest and a rectangle.
+     * @param otherX The x of the top left corner of the rectangle.
+     * @param otherY The y of the top left corner of the rectangle.
+     * @param otherWidth The width of the rectangle.
+     * @param otherHeight The height of the rectangle.
+     * @return The intersection over union, between 0 and 1.
+     */
+    public double intersectionOverUnion(final int otherX, final int otherY,
+                                        final int otherWidth, final int otherHeight) {
+        double intersectionWidth = Math.min(x + width, otherX + otherWidth) - Math.max(x, otherX);
+        double intersectionHeight =
+            Math.min(y + height, otherY + otherHeight) - Math.max(y, otherY);
+        if (intersectionWidth <= 0 || intersectionHeight <= 0) {
+            return 0;
+        }
+        double intersection = intersectionWidth * intersectionHeight;
+        return intersection / (width * height + (double) otherWidth * otherHeight - intersection);
+    }
+
+    /**
+     * Get the id of the chest.
+     * @return The id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the expected bounding rect of the chest.
+     * @return The bounding rect.
+     */
+    public Rect getRect() {
+        return new Rect((int) Math.round(x), (int) Math.round(y),
+            (int) Math.round(width), (int) Math.round(height));
+    }
+
+    /**
+     * Get the amount of frames the chest was measured in.
+     * @return The amount of hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the amount of analysed frames since the chest was last measured.
+     * @return The amount of misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,67 @@
+package gui;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.opencv.core.Mat;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Class that renders frames into one reused WritableImage.
+ * The frame is converted to the BGRA format JavaFX uses internally and written with its
+ * PixelWriter, so no images or buffers are allocated as long as the frame size stays the same.
+ */
+public class FrameRenderer {
+
+    private static final int BGRA_CHANNELS = 4;
+    private Mat bgra = new Mat();
+    private byte[] buffer = new byte[0];
+    private WritableImage image;
+
+    /**
+     * Render a frame into the image of this renderer.
+     * Must be called on the JavaFX thread.
+     *
+     * @param frame The frame in BGR, BGRA or grayscale Mat format.
+     * @return The image with the frame, or the previous image if the frame is empty.
+     */
+    public Image render(final Mat frame) {
+        if (frame.empty()) {
+            return image;
+        }
+        toBgra(frame);
+
+        int width = bgra.cols();
+        int height = bgra.rows();
+        if (image == null || (int) image.getWidth() != width || (int) image.getHeight() != height) {
+            image = new WritableImage(width, height);
+            buffer = new byte[width * height * BGRA_CHANNELS];
+        }
+        bgra.get(0, 0, buffer);
+        image.getPixelWriter().setPixels(0, 0, width, height,
+            PixelFormat.getByteBgraPreInstance(), buffer, 0, width * BGRA_CHANNELS);
+        return image;
+    }
+
+    /**
+     * Convert the frame to BGRA in the reused Mat of this renderer.
+     * @param frame The frame in BGR, BGRA or grayscale Mat format.
+     */
+    private void toBgra(final Mat frame) {
+        if (frame.channels() == 1) {
+            Imgproc.cvtColor(frame, bgra, Imgproc.COLOR_GRAY2BGRA);
+        } else if (frame.channels() == BGRA_CHANNELS) {
+            frame.copyTo(bgra);
+        } else {
+            Imgproc.cvtColor(frame, bgra, Imgproc.COLOR_BGR2BGRA);
+        }
+    }
+
+    /**
+     * Get the image this renderer writes in.
+     * @return The image, null if nothing is rendered yet.
+     */
+    public Image getImage() {
+        return image;
+    }
+}
@@ -5,8 +5,10 @@ import handlers.CameraHandler;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.io.File;
+import java.io.IOException;
 import javafx.application.Application;
 import javafx.stage.Stage;
+import journal.GameJournal;
 
 /**
  * Main.
@@ -55,6 +57,7 @@ public class Main extends Application {
         primaryStage.setHeight(height);
 
         CameraHandler cameraHandler = new CameraHandler();
+        cameraHandler.setPaced(true);
         Controller.setCameraHandler(cameraHandler);
 
         MonitorScene monitorScene = new MonitorScene();
@@ -64,6 +67,24 @@ public class Main extends Application {
         primaryStage.setScene(monitorScene.createMonitorScene(primaryStage, stylesheet));
         primaryStage.setMaximized(true);
         primaryStage.show();
-        primaryStage.setOnCloseRequest(e -> System.exit(0));
+        primaryStage.setOnCloseRequest(e -> {
+            closeJournal(cameraHandler.getJournal());
+            System.exit(0);
+        });
+    }
+
+    /**
+     * Close the journal of the game when the application is closed, which records the end
+     * of the game, so the game is not recovered when the application is started again.
+     * @param journal The journal, null if no room is configured.
+     */
+    private static void closeJournal(final GameJournal journal) {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Journal could not be closed: " + e.getMessage());
+            }
+        }
     }
 }
\ No newline at end of file
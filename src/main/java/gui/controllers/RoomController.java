@@ -1,14 +1,18 @@
 package gui.controllers;
 
+import camera.CameraConfig;
 import gui.Util;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import journal.GameJournal;
+import journal.GameRecovery;
 import room.Chest;
 import room.Progress;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -46,10 +50,12 @@ public class RoomController extends Controller {
      * Configure everything needed to start observing the game fin the application.
      */
     private void configure() {
-        for (String link : progress.getRoom().getLinkList()) {
-            getCameraHandler().addCamera(link, progress.getRoom().getChestList().size());
+        for (CameraConfig config : progress.getRoom().getCameraConfigs()) {
+            getCameraHandler().addCamera(config, progress.getRoom().getChestList().size());
         }
         progress.getRoom().setInformationHandler(getCameraHandler().getInformationHandler());
+        progress.getRoom().setMetricsHandler(getCameraHandler().getMetricsHandler());
+        openJournal();
 
         List<Chest> chestList = progress.getRoom().getChestList();
         chestTimeStampList = new ArrayList<>();
@@ -62,6 +68,43 @@ public class RoomController extends Controller {
         configured = true;
     }
 
+    /**
+     * Open the journal of the game, in which the cameras and the room record their events.
+     * When the last game of the room did not end, like after a crash, it is recovered first.
+     * Without a journal the game is monitored as usual, but it cannot be replayed.
+     */
+    private void openJournal() {
+        try {
+            GameRecovery recovery = GameRecovery.find(GameJournal.DIRECTORY,
+                progress.getRoom().getId());
+            GameJournal journal = GameJournal.create(GameJournal.DIRECTORY,
+                progress.getRoom().getId());
+            if (recovery != null) {
+                recovery.recover(progress.getRoom(), getCameraHandler(), journal);
+            }
+            getCameraHandler().setJournal(journal);
+            progress.getRoom().setJournal(journal);
+        } catch (IOException e) {
+            System.out.println("Journal could not be opened: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close the journal of the game, which records the end of the game.
+     */
+    private void closeJournal() {
+        GameJournal journal = progress.getRoom().getJournal();
+        getCameraHandler().setJournal(null);
+        progress.getRoom().setJournal(null);
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Journal could not be closed: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Creates a new Room from manual configuration.
      * @param players the amount of players in the game
@@ -91,6 +134,9 @@ public class RoomController extends Controller {
         if (statusPane != null) {
             statusPane.getChildren().clear();
         }
+        if (progress != null) {
+            closeJournal();
+        }
         configured = false;
         progress = null;
     }
@@ -107,6 +153,10 @@ public class RoomController extends Controller {
             updateActivity();
             updateWarningPane(now);
         }
+        if (progress != null) {
+            progress.getRoom().publishStatus(getCameraHandler().getBeginTime(),
+                getCameraHandler().getActive());
+        }
     }
 
     /**
@@ -216,7 +266,7 @@ public class RoomController extends Controller {
      * @param elapsedTime the elapsed time
      */
     void changeTime(final long elapsedTime) {
-        List<Chest> chestList = progress.getRoom().getChestList();
+        List<Chest> chestList = progress.getRoom().getChestSnapshot();
         if (chestList.size() > 0 && getCameraHandler().getBeginTime() != -1) {
             for (int i = 0; i < chestList.size(); i++) {
                 Chest currentChest = chestList.get(i);
@@ -231,7 +281,7 @@ public class RoomController extends Controller {
                     == Chest.Status.WAITING_FOR_SECTION_TO_START) {
                     chestTimeStampList.get(i).setText("");
                 }
-                updateTimeChestsPanel(time, i);
+                updateTimeChestsPanel(currentChest, time, i);
             }
         }
     }
@@ -276,12 +326,11 @@ public class RoomController extends Controller {
 
     /**
      * Update the colors of the time text and check if the team is behind schedule.
+     * @param chest the copy of the chest
      * @param time the current time - time chest was discovered
      * @param pos the current position in the chestlist
      */
-    private void updateTimeChestsPanel(final long time, final int pos) {
-        List<Chest> chestList = progress.getRoom().getChestList();
-        Chest chest = chestList.get(pos);
+    private void updateTimeChestsPanel(final Chest chest, final long time, final int pos) {
         if (chest.getChestState() == Chest.Status.TO_BE_OPENED
             && !(TimeUnit.NANOSECONDS.toSeconds(time) <= chest.getTargetDurationInSec())) {
             if (chestTimeStampList.get(pos).getTextFill().equals(Color.GREEN)) {
@@ -303,7 +352,7 @@ public class RoomController extends Controller {
      */
     private boolean checkBehindSchedule(final long time) {
         if (getCameraHandler().getBeginTime() != -1) {
-            List<Chest> chestList = progress.getRoom().getChestList();
+            List<Chest> chestList = progress.getRoom().getChestSnapshot();
             for (Chest chest : chestList) {
                 long seconds = TimeUnit.NANOSECONDS.toSeconds(time - chest.getBeginTime());
                 if (chest.getChestState() == Chest.Status.TO_BE_OPENED
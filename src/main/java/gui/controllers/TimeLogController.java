@@ -1,6 +1,7 @@
 package gui.controllers;
 
 import gui.Util;
+import handlers.ChestImageWriter;
 import handlers.InformationHandler;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.control.Button;
@@ -9,8 +10,9 @@ import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.util.Pair;
+import journal.GameJournal;
+import journal.JournalEvent;
 import org.opencv.core.Mat;
-import org.opencv.imgcodecs.Imgcodecs;
 
 import java.awt.image.BufferedImage;
 import java.util.concurrent.TimeUnit;
@@ -31,13 +33,15 @@ public class TimeLogController extends Controller {
     private Label timeStamp;
     private Mat img;
     private long lastChest = -1;
-    private boolean storeChestImages = false;
+    private boolean storeChestImages = true;
+    private ChestImageWriter imageWriter = new ChestImageWriter();
 
     /**
      * Constructor for the TimeLogController, sets a new informationHandler.
      */
     public TimeLogController() {
         informationHandler = getCameraHandler().getInformationHandler();
+        getCameraHandler().getMetricsHandler().setImageWriter(imageWriter);
     }
 
     @Override
@@ -114,25 +118,58 @@ public class TimeLogController extends Controller {
     public void confirmedChest(final String chestsFound) {
         final long timeOut = TimeUnit.SECONDS.toNanos(5);
         addInformation("Found chest " + chestsFound, chestTimestamp);
-        if (storeChestImages) {
-            Imgcodecs.imwrite("files/chests/correct/"
-                + TimeUnit.NANOSECONDS.toMillis(chestTimestamp) + ".png", img);
-        }
+        storeChestImage("files/chests/correct");
         lastChest = chestTimestamp + timeOut;
         clearButtons();
     }
 
     /**
      * Turns button invisible without notification of found chest.
+     * The rejection is recorded in the journal of the game, the approval of a chest
+     * is recorded by the room when the chest is opened.
      */
     public void unConfirm() {
-        if (storeChestImages) {
-            Imgcodecs.imwrite("files/chests/incorrect/"
-                + TimeUnit.NANOSECONDS.toMillis(chestTimestamp) + ".png", img);
+        GameJournal journal = getCameraHandler().getJournal();
+        if (journal != null) {
+            journal.record(JournalEvent.Type.CHEST_REJECTED, chestTimestamp, 0, 0);
         }
+        storeChestImage("files/chests/incorrect");
         clearButtons();
     }
 
+    /**
+     * Hand the image of the shown chest to the image writer, which writes it in the background
+     * so the user interface does not wait for it, or release it if images are not stored.
+     * @param directory the directory of the image
+     */
+    private void storeChestImage(final String directory) {
+        if (img == null) {
+            return;
+        }
+        if (storeChestImages) {
+            imageWriter.submit(img, directory, chestTimestamp);
+        } else {
+            img.release();
+        }
+        img = null;
+    }
+
+    /**
+     * Set if the images of the chests are stored when the host approves them or not.
+     * @param store true to store the images, which is the default
+     */
+    public void setStoreChestImages(final boolean store) {
+        this.storeChestImages = store;
+    }
+
+    /**
+     * Get the writer of the images of the chests, of which the format can be set.
+     * @return the image writer
+     */
+    public ChestImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
     /**
      * Set the buttons and picture to not visible.
      */
@@ -225,6 +262,8 @@ public class TimeLogController extends Controller {
             imageView.setImage(image);
             chestTimestamp = mat.getValue();
             img = mat.getKey();
+        } else if (mat != null) {
+            mat.getKey().release();
         }
     }
 
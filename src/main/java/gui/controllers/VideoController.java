@@ -1,7 +1,7 @@
 package gui.controllers;
 
-import gui.Util;
-import javafx.embed.swing.SwingFXUtils;
+import camera.CameraMetrics;
+import gui.FrameRenderer;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
@@ -9,7 +9,6 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import org.opencv.core.Mat;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +20,7 @@ public class VideoController extends Controller {
 
     private boolean closed;
     private List<ImageView> imageViews = new ArrayList<>();
+    private List<FrameRenderer> renderers = new ArrayList<>();
     private Button playButton;
 
     /**
@@ -32,31 +32,41 @@ public class VideoController extends Controller {
     }
 
     /**
-     * Request frames from all the cameras.
-     * @return list of frames in Mat format
+     * Request frames from all the cameras and render them in the imageViews.
      */
-    private List<Image> requestFrames() {
+    private void requestFrames() {
         List<Mat> frames = getCameraHandler().processFrames();
-        List<Image> processedFrames = new ArrayList<>();
 
         if (!getCameraHandler().isChanged()) {
             closed = true;
         } else {
-            for (Mat frame : frames) {
-                BufferedImage bufferedFrame = Util.matToBufferedImage(frame);
-                processedFrames.add(SwingFXUtils.toFXImage(bufferedFrame, null));
-            }
+            renderFrames(frames);
             closed = false;
         }
-        return processedFrames;
+        getCameraHandler().recycleFrames(frames);
+    }
+
+    /**
+     * Render every frame in the reused image of its imageView.
+     * @param frames the frames in Mat format, in the order of the imageViews
+     */
+    private void renderFrames(final List<Mat> frames) {
+        for (int i = 0; i < frames.size() && i < imageViews.size(); i++) {
+            if (renderers.size() <= i) {
+                renderers.add(new FrameRenderer());
+            }
+            long start = System.nanoTime();
+            Image image = renderers.get(i).render(frames.get(i));
+            getCameraHandler().getCamera(i).getMetrics().record(CameraMetrics.Stage.RENDER, start);
+            if (image != null) {
+                imageViews.get(i).setImage(image);
+            }
+        }
     }
 
     @Override
     public void update(final long now) {
-        List<Image> currentFrames = requestFrames();
-        for (int i = 0; i < currentFrames.size(); i++) {
-            imageViews.get(i).setImage(currentFrames.get(i));
-        }
+        requestFrames();
     }
 
     @Override
@@ -109,6 +119,7 @@ public class VideoController extends Controller {
      */
     public void setImageViews(final List<ImageView> newViews) {
         this.imageViews = newViews;
+        renderers.clear();
     }
 
     /**
@@ -99,7 +99,7 @@ public class ProgressBar {
      * Create the labels for the puzzles and chests.
      */
     private void initProgressBarItems() {
-        List<Chest> chests = controller.getProgress().getRoom().getChestList();
+        List<Chest> chests = controller.getProgress().getRoom().getChestSnapshot();
         progressStages = new ArrayList<>();
 
         // Add chests and their puzzle steps to the list
@@ -165,7 +165,7 @@ public class StatusPane {
      * @return chestTimePane
      */
     private Pane addLabelsPerChest(final GridPane chestTimePane) {
-        List<Chest> chestList = roomController.getProgress().getRoom().getChestList();
+        List<Chest> chestList = roomController.getProgress().getRoom().getChestSnapshot();
 
         for (int i = 0; i < chestList.size(); i++) {
             Label chestLabel = new Label((i + 1) + "");
@@ -0,0 +1,203 @@
+package handlers;
+
+import camera.Camera;
+import org.opencv.core.Mat;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Class for analysing frames on a fixed amount of worker threads.
+ * Every camera has one slot, a frame that is not analysed yet gets replaced by a newer frame.
+ * The slots are kept per camera object, so cameras of different rooms with the same link
+ * do not share a slot.
+ * Dropped frames are recycled in the pool of their camera.
+ * The executor can be shared by the camera handlers of several rooms, every camera gets
+ * its turn on the workers no matter which room it belongs to.
+ */
+public class AnalysisExecutor {
+
+    /**
+     * The maximum time in milliseconds to wait for the analysis of a removed camera.
+     */
+    public static final long REMOVE_TIMEOUT_MILLIS = 1000;
+    private ExecutorService executor;
+    private BiConsumer<Camera, Mat> analysis;
+    private Map<Camera, Slot> slots = Collections.synchronizedMap(new IdentityHashMap<>());
+    private AtomicLong submitted = new AtomicLong();
+    private AtomicLong dropped = new AtomicLong();
+    private AtomicLong completed = new AtomicLong();
+
+    /**
+     * Slot with the latest frame of a camera that still has to be analysed.
+     */
+    private static class Slot {
+        private AtomicReference<Mat> pending = new AtomicReference<>();
+        private AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile BiConsumer<Camera, Mat> analysis;
+    }
+
+    /**
+     * Constructor for the AnalysisExecutor.
+     * @param threads The amount of worker threads.
+     * @param newAnalysis The analysis to run on every frame.
+     */
+    public AnalysisExecutor(final int threads, final BiConsumer<Camera, Mat> newAnalysis) {
+        this(threads);
+        analysis = newAnalysis;
+    }
+
+    /**
+     * Constructor for an AnalysisExecutor without a default analysis,
+     * the analysis is given with every frame.
+     * @param threads The amount of worker threads.
+     */
+    public AnalysisExecutor(final int threads) {
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submit a frame of a camera to be analysed.
+     * A frame of the same camera that is still waiting is dropped.
+     * @param camera The camera of the frame.
+     * @param frame The frame.
+     */
+    public void submit(final Camera camera, final Mat frame) {
+        submit(camera, frame, analysis);
+    }
+
+    /**
+     * Submit a frame of a camera to be analysed with an analysis.
+     * A frame of the same camera that is still waiting is dropped.
+     * @param camera The camera of the frame.
+     * @param frame The frame.
+     * @param frameAnalysis The analysis to run on the frame.
+     */
+    public void submit(final Camera camera, final Mat frame,
+                       final BiConsumer<Camera, Mat> frameAnalysis) {
+        submitted.incrementAndGet();
+        Slot slot = slots.computeIfAbsent(camera, key -> new Slot());
+        slot.analysis = frameAnalysis;
+        drop(camera, slot.pending.getAndSet(frame));
+        schedule(camera, slot);
+    }
+
+    /**
+     * Schedule the slot on a worker when it is not scheduled yet.
+     * @param camera The camera of the slot.
+     * @param slot The slot.
+     */
+    private void schedule(final Camera camera, final Slot slot) {
+        if (slot.pending.get() != null && slot.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> run(camera, slot));
+        }
+    }
+
+    /**
+     * Analyse the pending frame of a slot.
+     * Only one frame is analysed per run, so every camera gets its turn on the workers.
+     * @param camera The camera of the slot.
+     * @param slot The slot.
+     */
+    private void run(final Camera camera, final Slot slot) {
+        try {
+            Mat frame = slot.pending.getAndSet(null);
+            if (frame != null) {
+                slot.analysis.accept(camera, frame);
+                completed.incrementAndGet();
+            }
+        } finally {
+            slot.scheduled.set(false);
+            schedule(camera, slot);
+        }
+    }
+
+    /**
+     * Drop all frames that are still waiting to be analysed.
+     */
+    public void clear() {
+        synchronized (slots) {
+            for (Map.Entry<Camera, Slot> entry : slots.entrySet()) {
+                drop(entry.getKey(), entry.getValue().pending.getAndSet(null));
+            }
+            slots.clear();
+        }
+    }
+
+    /**
+     * Drop the frame of a camera that is still waiting to be analysed and forget the camera.
+     * Waits at most REMOVE_TIMEOUT_MILLIS for a frame of the camera that is being analysed,
+     * so the pool of the camera is not used anymore when this returns.
+     * @param camera The camera.
+     */
+    public void remove(final Camera camera) {
+        Slot slot = slots.remove(camera);
+        if (slot != null) {
+            drop(camera, slot.pending.getAndSet(null));
+            awaitIdle(slot);
+        }
+    }
+
+    /**
+     * Wait until a slot is not scheduled on a worker anymore.
+     * @param slot The slot, which is removed so it is not scheduled again.
+     */
+    private void awaitIdle(final Slot slot) {
+        long end = System.currentTimeMillis() + REMOVE_TIMEOUT_MILLIS;
+        try {
+            while (slot.scheduled.get() && System.currentTimeMillis() < end) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Count a frame that will not be analysed and recycle it.
+     * @param camera The camera of the frame.
+     * @param frame The frame, or null if nothing was dropped.
+     */
+    private void drop(final Camera camera, final Mat frame) {
+        if (frame != null) {
+            dropped.incrementAndGet();
+            camera.getMatPool().recycle(frame);
+        }
+    }
+
+    /**
+     * Get the amount of frames submitted.
+     * @return The amount of submitted frames.
+     */
+    public long getSubmittedFrames() {
+        return submitted.get();
+    }
+
+    /**
+     * Get the amount of frames dropped before they were analysed.
+     * @return The amount of dropped frames.
+     */
+    public long getDroppedFrames() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the amount of frames analysed.
+     * @return The amount of completed frames.
+     */
+    public long getCompletedFrames() {
+        return completed.get();
+    }
+}
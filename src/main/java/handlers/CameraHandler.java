@@ -1,14 +1,21 @@
 package handlers;
 
+import camera.AnalysisContext;
+import camera.AnalysisRate;
 import camera.Camera;
 import camera.CameraActivity;
-import javafx.animation.AnimationTimer;
+import camera.CameraConfig;
+import camera.CameraMetrics;
 import javafx.util.Pair;
+import journal.GameJournal;
+import journal.JournalEvent;
 import org.opencv.core.Mat;
 import org.opencv.videoio.VideoCapture;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import static java.lang.System.nanoTime;
 
@@ -20,12 +27,40 @@ public class CameraHandler {
     /**
      * Enum for the activity.
      */
-    enum Activity {
-        ZERO, LOW, MEDIUM, HIGH
+    public enum Activity {
+        /**
+         * No activity yet, the room has not started.
+         */
+        ZERO,
+        /**
+         * Low activity compared to the activity so far.
+         */
+        LOW,
+        /**
+         * Medium activity compared to the activity so far.
+         */
+        MEDIUM,
+        /**
+         * High activity compared to the activity so far.
+         */
+        HIGH
     }
 
-    private static final int ACTIVITY_THRESHOLD = 5;
+    /**
+     * Every how many frames of a camera a frame is analysed in a batch analysis,
+     * and in real time while the room is neither quiet nor busy.
+     */
+    public static final int ANALYSIS_FREQUENCY = 10;
+    /**
+     * The activity of a frame above which the room is started.
+     */
+    public static final int ACTIVITY_THRESHOLD = 5;
+    /**
+     * The minimum time in seconds between two attempts to reconnect the streams that dropped.
+     */
+    public static final long RECONNECT_INTERVAL_SECONDS = 5;
     private static final int FIRST_DETECTION = 80;
+    private static final int BOOST_SECONDS = 2;
 
     private List<Camera> cameraList = new ArrayList<>();
     private InformationHandler informationHandler;
@@ -33,13 +68,20 @@ public class CameraHandler {
     private long beginTime = -1;
     private boolean chestFound = false;
     private Activity active = Activity.ZERO;
-    private List<AnimationTimer> timers = new ArrayList<>();
+    private boolean realTime = true;
+    private boolean paced = false;
+    private int readAhead = Camera.DEFAULT_READ_AHEAD;
+    private long lastReconnect = -1;
+    private AnalysisExecutor analysisExecutor;
+    private MetricsHandler metricsHandler;
+    private BiConsumer<Camera, Mat> analysis = this::processFrame;
+    private volatile GameJournal journal;
 
     /**
      * Constructor for CameraHandler without specified information handler.
      */
     public CameraHandler() {
-        informationHandler = new InformationHandler();
+        this(new InformationHandler());
     }
 
     /**
@@ -47,7 +89,19 @@ public class CameraHandler {
      * @param information The informationHandler.
      */
     public CameraHandler(final InformationHandler information) {
+        this(information, new AnalysisExecutor(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructor for a CameraHandler that analyses its frames on an executor,
+     * which can be shared with the camera handlers of other rooms.
+     * @param information The informationHandler.
+     * @param executor The executor that analyses the frames.
+     */
+    public CameraHandler(final InformationHandler information, final AnalysisExecutor executor) {
         informationHandler = information;
+        analysisExecutor = executor;
+        metricsHandler = new MetricsHandler(analysisExecutor);
     }
 
     /**
@@ -60,6 +114,21 @@ public class CameraHandler {
         return addCamera(link, -1);
     }
 
+    /**
+     * Add a new camera from its configuration.
+     *
+     * @param config The configuration of the camera.
+     * @param chests Amount of chests.
+     * @return The new camera, null if it could not be opened.
+     */
+    public Camera addCamera(final CameraConfig config, final int chests) {
+        Camera camera = addCamera(config.getLink(), chests);
+        if (camera != null) {
+            config.applyTo(camera);
+        }
+        return camera;
+    }
+
     /**
      * Add a new camera to use for streaming.
      *
@@ -80,47 +149,40 @@ public class CameraHandler {
             camera = new Camera(videoCapture, link, chests);
         }
         cameraList.add(camera);
-
-        if (link.startsWith("rtsp")) {
-            streamTimer(camera);
+        metricsHandler.addCamera(camera);
+        if (realTime) {
+            startCapture(camera);
         }
         return camera;
     }
 
     /**
-     * Create a temporary timer for a stream.
-     * @param camera the camera
+     * Start the capture thread of a camera with the pacing and read ahead of this handler.
+     *
+     * @param camera The camera.
      */
-    private void streamTimer(final Camera camera) {
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(final long now) {
-                camera.loadFrame();
-            }
-        };
-        timer.start();
-        timers.add(timer);
+    private void startCapture(final Camera camera) {
+        camera.setPaced(paced);
+        camera.setReadAhead(readAhead);
+        camera.startCapture();
     }
 
     /**
      * Get new frames from the cameras.
+     * The frames are borrowed from the pools of the cameras, see recycleFrames.
      *
      * @return The new frames as a list of Mat.
      */
     public List<Mat> processFrames() {
-        final int frequency = 10;
-        clearTimers();
-
         List<Mat> frames = new ArrayList<>();
         for (Camera camera : cameraList) {
             Mat newFrame = camera.getLastFrame();
             if (camera.getFirstFrame() == null) {
-                camera.setFirstFrame(newFrame);
+                camera.setFirstFrame(newFrame.clone());
             }
 
-            if (camera.getFrameCounter() % frequency == 0) {
-                Thread thread = new Thread(() -> processFrame(camera, newFrame));
-                thread.start();
+            if (camera.hasNewFrame() && camera.getAnalysisRate().isDue(camera.getFrameCounter())) {
+                submitForAnalysis(camera, newFrame);
             }
             frames.add(newFrame);
         }
@@ -132,45 +194,100 @@ public class CameraHandler {
     }
 
     /**
-     * Stop and clear all timers.
+     * Read the next frame of a camera and analyse it on the calling thread when it is its turn,
+     * the other frames are skipped without decoding them. Unlike processFrames nothing is
+     * paced or dropped, which is used to analyse recorded videos as fast as possible.
+     *
+     * @param camera The camera, added while not in real time.
+     * @return True if the camera had a next frame, false at the end of its video.
      */
-    private void clearTimers() {
-        for (AnimationTimer timer : timers) {
-            timer.stop();
+    public boolean analyseNextFrame(final Camera camera) {
+        if ((camera.getFrameCounter() + 1) % ANALYSIS_FREQUENCY != 0) {
+            return camera.skipFrame();
+        }
+        Mat frame = camera.getLastFrame();
+        if (!camera.hasNewFrame()) {
+            camera.getMatPool().recycle(frame);
+            return false;
+        }
+        processFrame(camera, frame);
+        if (active != Activity.ZERO) {
+            changeActivity();
+        }
+        return true;
+    }
+
+    /**
+     * Submit a copy of a frame to be analysed, the frame itself is shown.
+     * @param camera The camera of the frame.
+     * @param frame The frame.
+     */
+    private void submitForAnalysis(final Camera camera, final Mat frame) {
+        long start = nanoTime();
+        Mat analysisFrame = camera.getMatPool().borrow(frame);
+        frame.copyTo(analysisFrame);
+        camera.getMetrics().record(CameraMetrics.Stage.COPY, start);
+        analysisExecutor.submit(camera, analysisFrame, analysis);
+    }
+
+    /**
+     * Give the frames returned by processFrames back to the pools of their cameras.
+     * @param frames The frames, in the order of the cameras.
+     */
+    public void recycleFrames(final List<Mat> frames) {
+        for (int i = 0; i < frames.size() && i < cameraList.size(); i++) {
+            cameraList.get(i).getMatPool().recycle(frames.get(i));
         }
-        timers.clear();
     }
 
     /**
      * Do all the calculations on the frame.
+     * The frame is recycled in the pool of the camera afterwards.
      * @param camera The camera of the frame.
      * @param newFrame The new frame.
      */
     private void processFrame(final Camera camera, final Mat newFrame) {
+        // The analysis runs on a downscaled copy, the full frame is only used for chest cutouts
+        long start = nanoTime();
+        Mat analysisFrame = camera.scaleForAnalysis(newFrame);
+        camera.getMetrics().record(CameraMetrics.Stage.SCALE, start);
+        // The foreground is computed once and shared by the steps below
+        AnalysisContext context = new AnalysisContext(camera, analysisFrame);
 
         // First calculate the activity and set it accordingly in camera
         // if enough activity is found the escape room gets started
         // this is done by setting cameras on active (activity per camera gets started)
-        processActivity(camera, newFrame);
+        processActivity(camera, context);
 
         // Secondly Detect and Track chests in the camera
         // change chestFound accordingly
         // put found chests in the information handler
-        processDetectionAndTrackingOfChests(camera, newFrame);
+        processDetectionAndTrackingOfChests(camera, context, newFrame);
+
+        adaptAnalysisRate(camera);
+        context.release();
+        if (analysisFrame != newFrame) {
+            camera.getMatPool().recycle(analysisFrame);
+        }
+        camera.getMatPool().recycle(newFrame);
     }
 
     /**
      * Processes the frame from the current camera to calculate the activity.
      * @param camera the camera
-     * @param frame the frame
+     * @param context the context of the frame at analysis scale
      */
-    private void processActivity(final Camera camera, final Mat frame) {
+    private void processActivity(final Camera camera, final AnalysisContext context) {
         CameraActivity activity = camera.getActivity();
-        activity.divideFrame(frame);
-
-        activity.addActivities(frame, camera.getFrameCounter());
+        // Subtract the background first, so it is timed as a stage of its own
+        context.getForeground();
+        long start = nanoTime();
+        activity.addActivities(context, camera.getFrameCounter());
+        camera.getMetrics().record(CameraMetrics.Stage.ACTIVITY, start);
+        record(JournalEvent.Type.ACTIVITY, camera, activity.getLastActivity());
         if (activity.getLastActivity() > ACTIVITY_THRESHOLD && beginTime == -1) {
             beginTime = nanoTime();
+            record(JournalEvent.Type.GAME_STARTED, camera, 0);
             informationHandler.addInformation("Detected activity");
             active = Activity.LOW;
             for (Camera cam : cameraList) {
@@ -180,44 +297,102 @@ public class CameraHandler {
     }
 
     /**
-     * Processes the frame from the current camera to detect and track chests.
+     * Record an event of a camera in the journal of the game, if there is one.
+     * The begin time of the game is recorded as the time of the game start.
+     * @param type the type of the event
      * @param camera the camera
-     * @param frame the frame
+     * @param value the value of the event
      */
-    private void processDetectionAndTrackingOfChests(final Camera camera, final Mat frame) {
-        Mat subtraction = camera.getChestDetector().subtractFrame(frame);
+    private void record(final JournalEvent.Type type, final Camera camera, final double value) {
+        GameJournal gameJournal = journal;
+        if (gameJournal == null) {
+            return;
+        }
+        long time = nanoTime();
+        if (type == JournalEvent.Type.GAME_STARTED) {
+            time = beginTime;
+        }
+        gameJournal.record(type, time, cameraList.indexOf(camera), value);
+    }
 
+    /**
+     * Processes the frame from the current camera to detect and track chests.
+     * @param camera the camera
+     * @param context the context of the frame at analysis scale
+     * @param fullFrame the frame at full resolution
+     */
+    private void processDetectionAndTrackingOfChests(final Camera camera,
+                                                     final AnalysisContext context,
+                                                     final Mat fullFrame) {
         if (camera.getFrameCounter() > FIRST_DETECTION) {
-            List<Mat> mats = camera.getChestDetector().
-                checkForChests(frame, camera, subtraction);
+            Mat fullRegion = fullFrame.submat(camera.getRegionOfInterest(fullFrame, 1));
+            long start = nanoTime();
+            List<Mat> mats = camera.getChestDetector().checkForChests(context, fullRegion);
+            camera.getMetrics().record(CameraMetrics.Stage.DETECTION, start);
             chestFound = mats.size() > 0;
+            if (chestFound) {
+                record(JournalEvent.Type.CHEST_DETECTED, camera, mats.size());
+            }
 
+            List<Pair<Mat, Long>> chests = new ArrayList<>();
             for (Mat mat : mats) {
-                Pair<Mat, Long> tuple = new Pair<>(mat, nanoTime());
-                informationHandler.addMatrix(tuple);
+                chests.add(new Pair<>(mat, nanoTime()));
             }
+            informationHandler.addMatrices(camera, chests);
+            fullRegion.release();
         }
     }
+
+    /**
+     * Change the rate at which the frames of a camera are analysed with the result of its
+     * last analysis. A camera in which a chest appeared, or that moves in a busy room,
+     * is analysed every frame. A still camera in a room that is not busy is analysed about
+     * once a second. The activity level of the room is relative to the activity so far,
+     * so a still camera is never analysed every frame because of it.
+     * @param camera the camera
+     */
+    private void adaptAnalysisRate(final Camera camera) {
+        AnalysisRate rate = camera.getAnalysisRate();
+        int frame = camera.getFrameCounter();
+        if (rate.chestsAppeared(camera.getTracker().getTrackedChests().size())) {
+            rate.boost(frame + camera.getFrameRate() * BOOST_SECONDS);
+        }
+        boolean still = camera.getActivity().getLastActivity() <= ACTIVITY_THRESHOLD;
+        if (rate.isBoosted(frame) || !still && active == Activity.HIGH) {
+            rate.setInterval(1);
+        } else if (still && (active == Activity.ZERO || active == Activity.LOW)) {
+            rate.setInterval(camera.getFrameRate());
+        } else {
+            rate.setInterval(ANALYSIS_FREQUENCY);
+        }
+    }
+
     /**
      * Change the activity with the last known activity.
      */
     public void changeActivity() {
-        final double oneThird = 0.33;
-        final double twoThird = 0.67;
-
         double ratio = 0;
         for (Camera camera : cameraList) {
             ratio += camera.getActivity().calculateRatio();
         }
-        ratio = ratio / (double) cameraList.size();
+        active = toActivity(ratio / (double) cameraList.size());
+    }
+
+    /**
+     * Get the activity level of a room that was started.
+     * @param ratio The average ratio in which the last activity of the cameras falls.
+     * @return The activity level.
+     */
+    public static Activity toActivity(final double ratio) {
+        final double oneThird = 0.33;
+        final double twoThird = 0.67;
 
         if (ratio < oneThird) {
-            active = Activity.LOW;
+            return Activity.LOW;
         } else if (ratio < twoThird) {
-            active = Activity.MEDIUM;
-        } else {
-            active = Activity.HIGH;
+            return Activity.MEDIUM;
         }
+        return Activity.HIGH;
     }
 
     /**
@@ -239,8 +414,18 @@ public class CameraHandler {
 
     /**
      * Clear the list of cameras and chest detected.
+     * The capture threads and the analysis of the cameras are stopped
+     * before their pools are cleared.
      */
     public void clearLists() {
+        for (Camera camera : cameraList) {
+            camera.stopCapture();
+            analysisExecutor.remove(camera);
+        }
+        metricsHandler.clear();
+        for (Camera camera : cameraList) {
+            camera.getMatPool().clear();
+        }
         cameraList.clear();
     }
 
@@ -252,6 +437,32 @@ public class CameraHandler {
         beginTime = -1;
     }
 
+    /**
+     * Set if cameras added from now on are read in real time by a capture thread,
+     * or only when their next frame is asked for.
+     * @param newRealTime True for real time, which is the default.
+     */
+    public void setRealTime(final boolean newRealTime) {
+        this.realTime = newRealTime;
+    }
+
+    /**
+     * Set if video files added from now on are played at their own frame rate,
+     * or as fast as their frames are asked for, which is the default.
+     * @param newPaced True to play at the frame rate of the videos.
+     */
+    public void setPaced(final boolean newPaced) {
+        this.paced = newPaced;
+    }
+
+    /**
+     * Set the amount of frames of video files added from now on that are decoded ahead.
+     * @param frames The amount of frames, a smaller amount than Camera.MIN_READ_AHEAD is raised.
+     */
+    public void setReadAhead(final int frames) {
+        this.readAhead = Math.max(Camera.MIN_READ_AHEAD, frames);
+    }
+
     /**
      * Get a camera from the list.
      *
@@ -262,6 +473,39 @@ public class CameraHandler {
         return cameraList.get(index);
     }
 
+    /**
+     * Get the executor that analyses the frames.
+     * @return The analysis executor.
+     */
+    public AnalysisExecutor getAnalysisExecutor() {
+        return analysisExecutor;
+    }
+
+    /**
+     * Get the handler with the metrics of the frame path of the cameras.
+     * @return The metrics handler.
+     */
+    public MetricsHandler getMetricsHandler() {
+        return metricsHandler;
+    }
+
+    /**
+     * Get the journal the events of the game are recorded in.
+     * @return The journal, null if the events are not recorded.
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Set the journal the events of the game are recorded in.
+     * The activity of every analysed frame is recorded, so it is written without blocking.
+     * @param newJournal The journal, null to stop recording.
+     */
+    public void setJournal(final GameJournal newJournal) {
+        this.journal = newJournal;
+    }
+
     /**
      * Get the information Handler.
      * @return The information handler.
@@ -283,6 +527,42 @@ public class CameraHandler {
         return true;
     }
 
+    /**
+     * Check if the cameras can still deliver frames. A video file can until its last frame,
+     * a stream always can, because a stream that dropped is reconnected.
+     * @return True if a camera can still deliver frames, false if all cameras ended.
+     */
+    public boolean hasLiveCameras() {
+        for (Camera camera : cameraList) {
+            if (camera.isStream() || camera.isChanged()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reconnect the streams of which the capture ended, like when the network dropped.
+     * Streams are tried at most every RECONNECT_INTERVAL_SECONDS.
+     */
+    public void reconnectStreams() {
+        long now = nanoTime();
+        if (lastReconnect != -1
+            && now - lastReconnect < TimeUnit.SECONDS.toNanos(RECONNECT_INTERVAL_SECONDS)) {
+            return;
+        }
+        lastReconnect = now;
+        for (Camera camera : cameraList) {
+            if (realTime && camera.isStream() && !camera.isCapturing()) {
+                String result = "could not be reconnected";
+                if (camera.reconnect()) {
+                    result = "reconnected";
+                }
+                informationHandler.addInformation("Stream " + camera.getLink() + " " + result);
+            }
+        }
+    }
+
     /**
      * Set a new information handler.
      * @param handler The new information handler.
@@ -332,10 +612,15 @@ public class CameraHandler {
     }
 
     /**
-     * Get the animationTimers for the streams.
-     * @return list of animationTimers
+     * Resume a game that started before, like when it is recovered after a crash.
+     * The cameras measure the activity as if the game started at the begin time.
+     * @param newTime the time the game started in nanoseconds
      */
-    public List<AnimationTimer> getTimers() {
-        return timers;
+    public void resumeGame(final long newTime) {
+        beginTime = newTime;
+        active = Activity.LOW;
+        for (Camera camera : cameraList) {
+            camera.getActivity().setStarted(true);
+        }
     }
 }
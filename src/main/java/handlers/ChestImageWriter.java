@@ -0,0 +1,345 @@
+package handlers;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writer of the images of detected chests, which are collected to train the chest detection.
+ * The images are encoded and written on a thread of their own, so storing them does not
+ * slow down the thread that submits them. The queue of images is bounded, when it is full
+ * a new image is dropped. The written files and their directories are synced to the disk
+ * in batches, when the queue is empty or SYNC_BATCH files were written.
+ */
+public class ChestImageWriter {
+
+    /**
+     * Enum for the formats the images can be written in.
+     */
+    public enum Format {
+        /**
+         * Lossless PNG, of which the compression level can be set.
+         */
+        PNG(".png"),
+        /**
+         * Lossy JPEG, of which the quality can be set.
+         */
+        JPEG(".jpg");
+
+        private final String extension;
+
+        /**
+         * Constructor for a format.
+         * @param newExtension The extension of the files.
+         */
+        Format(final String newExtension) {
+            extension = newExtension;
+        }
+
+        /**
+         * Get the extension of the files of the format.
+         * @return The extension, with the dot.
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * The default maximum amount of images waiting to be written.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+    /**
+     * The default quality of JPEG images, from 0 to 100.
+     */
+    public static final int DEFAULT_JPEG_QUALITY = 95;
+    /**
+     * The default compression level of PNG images, from 0 to 9.
+     */
+    public static final int DEFAULT_PNG_COMPRESSION = 3;
+    /**
+     * The maximum amount of files written before they are synced to the disk.
+     */
+    public static final int SYNC_BATCH = 16;
+    private static final int MAX_JPEG_QUALITY = 100;
+    private static final int MAX_PNG_COMPRESSION = 9;
+    private BlockingQueue<Snapshot> queue;
+    private Thread thread;
+    private volatile Format format = Format.PNG;
+    private volatile int jpegQuality = DEFAULT_JPEG_QUALITY;
+    private volatile int pngCompression = DEFAULT_PNG_COMPRESSION;
+    private AtomicInteger backlog = new AtomicInteger();
+    private AtomicLong written = new AtomicLong();
+    private AtomicLong dropped = new AtomicLong();
+    private AtomicLong failed = new AtomicLong();
+    private Set<Path> unsynced = new LinkedHashSet<>();
+    private int unsyncedImages;
+
+    /**
+     * An image that waits to be written to a file.
+     */
+    private static class Snapshot {
+        private Mat image;
+        private Path file;
+        private Format format;
+
+        /**
+         * Constructor for an image waiting to be written.
+         * @param newImage The image.
+         * @param newFile The file.
+         * @param newFormat The format of the file.
+         */
+        Snapshot(final Mat newImage, final Path newFile, final Format newFormat) {
+            image = newImage;
+            file = newFile;
+            format = newFormat;
+        }
+    }
+
+    /**
+     * Constructor for a ChestImageWriter with the default capacity.
+     */
+    public ChestImageWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for a ChestImageWriter, of which the thread starts with the first image.
+     * @param capacity The maximum amount of images waiting to be written.
+     */
+    public ChestImageWriter(final int capacity) {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Submit an image to be written to a file named after its timestamp.
+     * The writer owns the image and releases it when it is written or dropped.
+     * @param image The image.
+     * @param directory The directory of the file, which is created if it does not exist.
+     * @param timestamp The timestamp of the image in nanoseconds.
+     * @return True if the image will be written, false if it was dropped.
+     */
+    public boolean submit(final Mat image, final String directory, final long timestamp) {
+        start();
+        Format current = format;
+        Path file = Paths.get(directory,
+            TimeUnit.NANOSECONDS.toMillis(timestamp) + current.getExtension());
+        backlog.incrementAndGet();
+        if (!queue.offer(new Snapshot(image, file, current))) {
+            backlog.decrementAndGet();
+            dropped.incrementAndGet();
+            image.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Start the thread that writes the images, if it did not start yet.
+     */
+    private synchronized void start() {
+        if (thread == null) {
+            thread = new Thread(this::run, "chest-images");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Write the images until the thread is interrupted.
+     * The written files are synced when there is no image waiting or the batch is full.
+     */
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Snapshot snapshot = queue.poll();
+                if (snapshot == null) {
+                    sync();
+                    snapshot = queue.take();
+                }
+                write(snapshot);
+                if (unsyncedImages >= SYNC_BATCH) {
+                    sync();
+                }
+            }
+        } catch (InterruptedException e) {
+            sync();
+        }
+    }
+
+    /**
+     * Encode an image in the current format and write it to its file.
+     * An image that could not be encoded or written is counted as failed,
+     * so one bad image does not stop the writer.
+     * @param snapshot The image and its file.
+     */
+    private void write(final Snapshot snapshot) {
+        MatOfByte encoded = new MatOfByte();
+        MatOfInt parameters = parameters(snapshot.format);
+        try {
+            encode(snapshot, encoded, parameters);
+            writeFile(snapshot.file, encoded.toArray());
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.out.println("Chest image could not be written: " + e.getMessage());
+        } finally {
+            unsyncedImages++;
+            encoded.release();
+            parameters.release();
+            snapshot.image.release();
+        }
+    }
+
+    /**
+     * Encode an image in the format of its file.
+     * @param snapshot The image and its file.
+     * @param encoded The bytes of the encoded image.
+     * @param parameters The parameters of the encoder.
+     * @throws IOException When the image could not be encoded.
+     */
+    private static void encode(final Snapshot snapshot, final MatOfByte encoded,
+        final MatOfInt parameters) throws IOException {
+        if (!Imgcodecs.imencode(snapshot.format.getExtension(), snapshot.image, encoded,
+            parameters)) {
+            throw new IOException("the image could not be encoded as "
+                + snapshot.format.getExtension());
+        }
+    }
+
+    /**
+     * Write the bytes of an image to a file, which is synced later with its directory.
+     * @param file The file.
+     * @param bytes The bytes.
+     * @throws IOException When the file could not be written.
+     */
+    private void writeFile(final Path file, final byte[] bytes) throws IOException {
+        Path directory = Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, bytes);
+        unsynced.add(file);
+        unsynced.add(directory);
+    }
+
+    /**
+     * Get the parameters of the encoder of a format.
+     * @param imageFormat The format.
+     * @return The parameters.
+     */
+    private MatOfInt parameters(final Format imageFormat) {
+        if (imageFormat == Format.JPEG) {
+            return new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, jpegQuality);
+        }
+        return new MatOfInt(Imgcodecs.IMWRITE_PNG_COMPRESSION, pngCompression);
+    }
+
+    /**
+     * Sync the written files and their directories to the disk, after which they are
+     * no longer part of the backlog.
+     */
+    private void sync() {
+        for (Path path : unsynced) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                // Not every system can open a directory, its files are synced anyway.
+                continue;
+            }
+        }
+        unsynced.clear();
+        backlog.addAndGet(-unsyncedImages);
+        unsyncedImages = 0;
+    }
+
+    /**
+     * Wait until all submitted images are written and synced.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return True if the backlog is empty, false if the time ran out.
+     * @throws InterruptedException When the thread is interrupted while waiting.
+     */
+    public boolean awaitBacklog(final long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        while (backlog.get() > 0 && System.currentTimeMillis() < end) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return backlog.get() == 0;
+    }
+
+    /**
+     * Get the amount of images that are submitted but not written and synced yet.
+     * @return The backlog.
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * Get the amount of images written.
+     * @return The amount of written images.
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Get the amount of images dropped because the queue was full.
+     * @return The amount of dropped images.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the amount of images that could not be encoded or written.
+     * @return The amount of failed images.
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Get the format of the images.
+     * @return The format.
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Set the format of the images submitted from now on.
+     * @param newFormat The format.
+     */
+    public void setFormat(final Format newFormat) {
+        this.format = newFormat;
+    }
+
+    /**
+     * Set the quality of JPEG images.
+     * @param quality The quality, from 0 for the smallest files to 100 for the best images.
+     */
+    public void setJpegQuality(final int quality) {
+        this.jpegQuality = Math.max(0, Math.min(MAX_JPEG_QUALITY, quality));
+    }
+
+    /**
+     * Set the compression level of PNG images.
+     * @param level The level, from 0 for the fastest encoding to 9 for the smallest files.
+     */
+    public void setPngCompression(final int level) {
+        this.pngCompression = Math.max(0, Math.min(MAX_PNG_COMPRESSION, level));
+    }
+}
@@ -3,16 +3,77 @@ package handlers;
 import javafx.util.Pair;
 import org.opencv.core.Mat;
 
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handler for the information to be shown.
+ * The queues are written from the analysis and API threads and read from the JavaFX thread.
+ * Both queues are bounded, when full the oldest entry is dropped and its matrix released.
  */
 public class InformationHandler {
 
-    private Queue<String> infQueue = new LinkedList<>();
-    private Queue<Pair<Mat, Long>> matQueue = new LinkedList<>();
+    /**
+     * The default maximum amount of information strings waiting to be shown.
+     */
+    public static final int DEFAULT_INFORMATION_CAPACITY = 256;
+    /**
+     * The default maximum amount of matrices waiting to be shown.
+     */
+    public static final int DEFAULT_MATRIX_CAPACITY = 16;
+
+    /**
+     * What to do with matrices when a new one is added.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Only drop the oldest matrix when the queue is full.
+         */
+        DROP_OLDEST,
+        /**
+         * Also replace the waiting matrices of the last frame of the same source, so every
+         * source has at most the matrices of one frame waiting.
+         */
+        COALESCE
+    }
+
+    private Queue<String> infQueue = new ConcurrentLinkedQueue<>();
+    private Queue<Pair<Mat, Long>> matQueue = new ConcurrentLinkedQueue<>();
+    private Map<Object, List<Pair<Mat, Long>>> latestPerSource = new ConcurrentHashMap<>();
+    private AtomicInteger infDepth = new AtomicInteger();
+    private AtomicInteger matDepth = new AtomicInteger();
+    private AtomicLong droppedInformation = new AtomicLong();
+    private AtomicLong droppedMatrices = new AtomicLong();
+    private int infCapacity;
+    private int matCapacity;
+    private OverflowPolicy policy;
+
+    /**
+     * Constructor for the InformationHandler with the default capacities.
+     */
+    public InformationHandler() {
+        this(DEFAULT_INFORMATION_CAPACITY, DEFAULT_MATRIX_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Constructor for the InformationHandler.
+     * @param newInfCapacity The maximum amount of information strings waiting.
+     * @param newMatCapacity The maximum amount of matrices waiting.
+     * @param newPolicy The policy for adding matrices.
+     */
+    public InformationHandler(final int newInfCapacity, final int newMatCapacity,
+                              final OverflowPolicy newPolicy) {
+        infCapacity = Math.max(1, newInfCapacity);
+        matCapacity = Math.max(1, newMatCapacity);
+        policy = newPolicy;
+    }
 
     /**
      * Add information to the infQueue.
@@ -20,6 +81,11 @@ public class InformationHandler {
      */
     public void addInformation(final String info) {
         infQueue.add(info);
+        int depth = infDepth.incrementAndGet();
+        while (depth > infCapacity && pollInformation() != null) {
+            droppedInformation.incrementAndGet();
+            depth = infDepth.get();
+        }
     }
 
     /**
@@ -28,6 +94,57 @@ public class InformationHandler {
      */
     public void addMatrix(final Pair<Mat, Long> mat) {
         matQueue.add(mat);
+        int depth = matDepth.incrementAndGet();
+        while (depth > matCapacity) {
+            Pair<Mat, Long> oldest = pollMatrix();
+            if (oldest == null) {
+                return;
+            }
+            drop(oldest);
+            depth = matDepth.get();
+        }
+    }
+
+    /**
+     * Add the only matrix of a frame of a source, like a camera, to the matQueue.
+     * @param source The source of the matrix.
+     * @param mat The new matrix.
+     */
+    public void addMatrix(final Object source, final Pair<Mat, Long> mat) {
+        addMatrices(source, Collections.singletonList(mat));
+    }
+
+    /**
+     * Add the matrices of one frame of a source, like the chests a camera found, to the matQueue.
+     * With the COALESCE policy the matrices of an earlier frame of the same source
+     * that are still waiting are dropped, the matrices of this frame are all kept.
+     * @param source The source of the matrices.
+     * @param mats The new matrices.
+     */
+    public void addMatrices(final Object source, final List<Pair<Mat, Long>> mats) {
+        if (policy == OverflowPolicy.COALESCE && !mats.isEmpty()) {
+            List<Pair<Mat, Long>> previous =
+                latestPerSource.put(source, new CopyOnWriteArrayList<>(mats));
+            if (previous != null) {
+                for (Pair<Mat, Long> mat : previous) {
+                    removeWaiting(mat);
+                }
+            }
+        }
+        for (Pair<Mat, Long> mat : mats) {
+            addMatrix(mat);
+        }
+    }
+
+    /**
+     * Drop a matrix that is still waiting in the matQueue.
+     * @param mat The matrix.
+     */
+    private void removeWaiting(final Pair<Mat, Long> mat) {
+        if (matQueue.remove(mat)) {
+            matDepth.decrementAndGet();
+            drop(mat);
+        }
     }
 
     /**
@@ -35,21 +152,70 @@ public class InformationHandler {
      * @return Information string.
      */
     public String getInformation() {
-        if (infQueue.isEmpty()) {
+        String info = pollInformation();
+        if (info == null) {
             return "empty";
         }
-        return infQueue.poll();
+        return info;
     }
 
     /**
      * Get matrices from the matQueue and remove if it exists, otherwise returns null.
+     * The caller owns the returned matrix.
      * @return matrix.
      */
     public Pair<Mat, Long> getMatrix() {
-        if (matQueue.isEmpty()) {
-            return null;
+        return pollMatrix();
+    }
+
+    /**
+     * Remove the oldest information from the infQueue.
+     * @return The information, null if the queue is empty.
+     */
+    private String pollInformation() {
+        String info = infQueue.poll();
+        if (info != null) {
+            infDepth.decrementAndGet();
+        }
+        return info;
+    }
+
+    /**
+     * Remove the oldest matrix from the matQueue.
+     * @return The matrix, null if the queue is empty.
+     */
+    private Pair<Mat, Long> pollMatrix() {
+        Pair<Mat, Long> mat = matQueue.poll();
+        if (mat != null) {
+            matDepth.decrementAndGet();
+            forget(mat);
+        }
+        return mat;
+    }
+
+    /**
+     * Forget a matrix that left the matQueue, so it is not kept as waiting matrix of its source
+     * after its new owner released it.
+     * @param mat The matrix.
+     */
+    private void forget(final Pair<Mat, Long> mat) {
+        for (Map.Entry<Object, List<Pair<Mat, Long>>> entry : latestPerSource.entrySet()) {
+            List<Pair<Mat, Long>> frame = entry.getValue();
+            if (frame.remove(mat) && frame.isEmpty()) {
+                latestPerSource.remove(entry.getKey(), frame);
+            }
+        }
+    }
+
+    /**
+     * Count a matrix that will not be shown and release it.
+     * @param mat The matrix, or null if nothing was dropped.
+     */
+    private void drop(final Pair<Mat, Long> mat) {
+        if (mat != null) {
+            droppedMatrices.incrementAndGet();
+            mat.getKey().release();
         }
-        return matQueue.poll();
     }
 
     /**
@@ -69,9 +235,54 @@ public class InformationHandler {
     }
 
     /**
-     * Clear the MatQueue.
+     * Clear the MatQueue and release the matrices in it.
      */
     public void clearMatQueue() {
-        matQueue.clear();
+        Pair<Mat, Long> mat = pollMatrix();
+        while (mat != null) {
+            mat.getKey().release();
+            mat = pollMatrix();
+        }
+        latestPerSource.clear();
+    }
+
+    /**
+     * Get the amount of information strings waiting to be shown.
+     * @return The depth of the infQueue.
+     */
+    public int getInformationDepth() {
+        return infDepth.get();
+    }
+
+    /**
+     * Get the amount of matrices waiting to be shown.
+     * @return The depth of the matQueue.
+     */
+    public int getMatrixDepth() {
+        return matDepth.get();
+    }
+
+    /**
+     * Get the amount of information strings dropped because the infQueue was full.
+     * @return The amount of dropped information strings.
+     */
+    public long getDroppedInformation() {
+        return droppedInformation.get();
+    }
+
+    /**
+     * Get the amount of matrices dropped before they were shown.
+     * @return The amount of dropped matrices.
+     */
+    public long getDroppedMatrices() {
+        return droppedMatrices.get();
+    }
+
+    /**
+     * Get the policy for adding matrices.
+     * @return The overflow policy.
+     */
+    public OverflowPolicy getPolicy() {
+        return policy;
     }
 }
@@ -1,9 +1,12 @@
 package handlers;
 
 import api.APIHandler;
+import camera.CameraConfig;
+import camera.RegionOfInterest;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
+import org.opencv.core.Point;
 import room.Chest;
 import room.Room;
 
@@ -44,20 +47,67 @@ public class JsonHandler {
      * @return List of the links to the cameras.
      */
     public List<String> getCameraLinks(final long roomId) {
-        JSONObject room = getRoomById(roomId);
         List<String> cameras = new ArrayList<>();
+        for (Object o : getCameraArray(roomId)) {
+            JSONObject object = (JSONObject) o;
+            cameras.add((String) object.get("link"));
+        }
+        return cameras;
+    }
+
+    /**
+     * Get the configurations of the cameras of the room.
+     * @param roomId The Id of the room.
+     * @return List of the camera configurations.
+     */
+    public List<CameraConfig> getCameraConfigs(final long roomId) {
+        List<CameraConfig> cameras = new ArrayList<>();
+        for (Object o : getCameraArray(roomId)) {
+            JSONObject object = (JSONObject) o;
+            CameraConfig config = new CameraConfig((String) object.get("link"));
+            Object scale = object.get("analysisScale");
+            if (scale != null) {
+                config.setAnalysisScale(((Number) scale).doubleValue());
+            }
+            JSONArray region = (JSONArray) object.get("regionOfInterest");
+            if (region != null) {
+                config.setRegionOfInterest(getRegionOfInterest(region));
+            }
+            cameras.add(config);
+        }
+        return cameras;
+    }
+
+    /**
+     * Get the region of interest of a camera from its corners.
+     * @param region The Json array with the corners as [x, y] arrays.
+     * @return The region of interest.
+     */
+    private RegionOfInterest getRegionOfInterest(final JSONArray region) {
+        List<Point> points = new ArrayList<>();
+        for (Object o : region) {
+            JSONArray corner = (JSONArray) o;
+            points.add(new Point(((Number) corner.get(0)).doubleValue(),
+                ((Number) corner.get(1)).doubleValue()));
+        }
+        return new RegionOfInterest(points);
+    }
+
+    /**
+     * Get the Json array with the cameras of a room.
+     * @param roomId The Id of the room.
+     * @return The Json array, empty if the room has no cameras.
+     */
+    private JSONArray getCameraArray(final long roomId) {
+        JSONObject room = getRoomById(roomId);
         JSONArray array = null;
         if (room != null) {
             array = (JSONArray) room.get("cameras");
         }
         if (array == null) {
-            return new ArrayList<>();
-        }
-        for (Object o : array) {
-            JSONObject object = (JSONObject) o;
-            cameras.add((String) object.get("link"));
+            return new JSONArray();
         }
-        return cameras;
+        return array;
     }
 
     /**
@@ -137,14 +187,7 @@ public class JsonHandler {
         List<Room> rooms = new ArrayList<>();
         for (Object o : jsonElement) {
             JSONObject roomObject = (JSONObject) o;
-            long roomId = (long) roomObject.get("roomId");
-            int amountPeople = getAmountPeople(roomId);
-            int targetDuration = getTargetDuration(roomId);
-            List<String> cameraLinks = getCameraLinks(roomId);
-            List<Chest> chests = createChests(roomId);
-            int port = getPortNumber(roomId);
-            Room room = new Room(roomId, amountPeople, cameraLinks, chests, targetDuration, port);
-            rooms.add(room);
+            rooms.add(createRoom((long) roomObject.get("roomId")));
         }
         return rooms;
     }
@@ -156,17 +199,27 @@ public class JsonHandler {
     public Room createSingleRoom() {
         if (!jsonElement.isEmpty()) {
             JSONObject roomObject = (JSONObject) jsonElement.get(0);
-            long roomId = (long) roomObject.get("roomId");
-            int amountPeople = getAmountPeople(roomId);
-            int targetDuration = getTargetDuration(roomId);
-            List<String> cameraLinks = getCameraLinks(roomId);
-            List<Chest> chests = createChests(roomId);
-            int port = getPortNumber(roomId);
-            return new Room(roomId, amountPeople, cameraLinks, chests, targetDuration, port);
+            return createRoom((long) roomObject.get("roomId"));
         }
         return new Room(0, 0, new ArrayList<>(), null, 0, APIHandler.DEFAULT_PORT);
     }
 
+    /**
+     * Create a room from the JSON file.
+     * @param roomId The id of the room.
+     * @return The room.
+     */
+    private Room createRoom(final long roomId) {
+        int amountPeople = getAmountPeople(roomId);
+        int targetDuration = getTargetDuration(roomId);
+        List<String> cameraLinks = getCameraLinks(roomId);
+        List<Chest> chests = createChests(roomId);
+        int port = getPortNumber(roomId);
+        Room room = new Room(roomId, amountPeople, cameraLinks, chests, targetDuration, port);
+        room.setCameraConfigs(getCameraConfigs(roomId));
+        return room;
+    }
+
     /**
      * Create chests from the room from the JSON file.
      * @param roomId The id of the room.
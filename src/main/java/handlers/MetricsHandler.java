@@ -0,0 +1,130 @@
+package handlers;
+
+import camera.Camera;
+import camera.CameraMetrics;
+import camera.LatencyHistogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Handler for the metrics of the frame path, which are read by the API.
+ */
+public class MetricsHandler {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private List<Camera> cameras = new CopyOnWriteArrayList<>();
+    private AnalysisExecutor analysisExecutor;
+    private volatile ChestImageWriter imageWriter;
+
+    /**
+     * Constructor for the MetricsHandler.
+     * @param executor The executor the frames are analysed on.
+     */
+    public MetricsHandler(final AnalysisExecutor executor) {
+        analysisExecutor = executor;
+    }
+
+    /**
+     * Add a camera of which the metrics are shown.
+     * @param camera The camera.
+     */
+    public void addCamera(final Camera camera) {
+        cameras.add(camera);
+    }
+
+    /**
+     * Remove all cameras.
+     */
+    public void clear() {
+        cameras.clear();
+    }
+
+    /**
+     * Create a JSON object with the latencies of every stage of every camera
+     * and the amount of analysed frames. Latencies are in nanoseconds.
+     * @return The metrics as JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJson() {
+        JSONArray cameraArray = new JSONArray();
+        for (Camera camera : cameras) {
+            cameraArray.add(cameraToJson(camera));
+        }
+
+        JSONObject analysis = new JSONObject();
+        analysis.put("submitted", analysisExecutor.getSubmittedFrames());
+        analysis.put("dropped", analysisExecutor.getDroppedFrames());
+        analysis.put("completed", analysisExecutor.getCompletedFrames());
+
+        JSONObject metrics = new JSONObject();
+        metrics.put("cameras", cameraArray);
+        metrics.put("analysis", analysis);
+        ChestImageWriter writer = imageWriter;
+        if (writer != null) {
+            metrics.put("chestImages", imageWriterToJson(writer));
+        }
+        return metrics;
+    }
+
+    /**
+     * Create a JSON object with the backlog and the amount of written, dropped and failed
+     * images of a chest image writer.
+     * @param writer The writer.
+     * @return The metrics of the writer as JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    private JSONObject imageWriterToJson(final ChestImageWriter writer) {
+        JSONObject object = new JSONObject();
+        object.put("backlog", writer.getBacklog());
+        object.put("written", writer.getWritten());
+        object.put("dropped", writer.getDropped());
+        object.put("failed", writer.getFailed());
+        return object;
+    }
+
+    /**
+     * Set the writer of the images of detected chests of which the metrics are shown.
+     * @param writer The writer, null to not show them.
+     */
+    public void setImageWriter(final ChestImageWriter writer) {
+        this.imageWriter = writer;
+    }
+
+    /**
+     * Create a JSON object with the link and the latencies of every stage of a camera.
+     * @param camera The camera.
+     * @return The metrics of the camera as JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    private JSONObject cameraToJson(final Camera camera) {
+        JSONObject stages = new JSONObject();
+        for (CameraMetrics.Stage stage : CameraMetrics.Stage.values()) {
+            stages.put(stage.name().toLowerCase(),
+                histogramToJson(camera.getMetrics().getHistogram(stage)));
+        }
+        JSONObject cameraObject = new JSONObject();
+        cameraObject.put("link", camera.getLink());
+        cameraObject.put("stages", stages);
+        return cameraObject;
+    }
+
+    /**
+     * Create a JSON object with the count, mean, percentiles and maximum of a histogram.
+     * @param histogram The histogram.
+     * @return The histogram as JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    private JSONObject histogramToJson(final LatencyHistogram histogram) {
+        JSONObject object = new JSONObject();
+        object.put("count", histogram.getCount());
+        object.put("mean", Math.round(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            object.put("p" + (int) percentile, histogram.getPercentile(percentile));
+        }
+        object.put("max", histogram.getMax());
+        return object;
+    }
+}
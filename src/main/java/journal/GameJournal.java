@@ -0,0 +1,465 @@
+package journal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of the events of a game, written to a memory-mapped file.
+ * Events are recorded from the analysis, API and JavaFX threads without blocking:
+ * a record reserves its place in the file with an atomic counter and is written straight
+ * into the mapped memory, which survives a crash of the application.
+ * A background thread forces the written records to the disk every FLUSH_INTERVAL_MILLIS,
+ * so a crash of the computer loses at most that interval. When the journal is closed the file
+ * is cut off after the last record, and only the last MAX_JOURNALS journals of a room are kept.
+ *
+ * <p>The file starts with a header of one record, followed by records of RECORD_SIZE bytes:
+ * the time in nanoseconds since the epoch, the value, the argument, a checksum and the type.
+ * A record with type 0 or a wrong checksum ends the journal, so replaying a journal
+ * of which the last records were not completely written stops before them.
+ */
+public class GameJournal {
+
+    /**
+     * The directory the journals of the games are written to.
+     */
+    public static final String DIRECTORY = "files/journal";
+    /**
+     * The size of the header and of every record in bytes.
+     */
+    public static final int RECORD_SIZE = 24;
+    /**
+     * The interval at which the written records are forced to the disk.
+     */
+    public static final long FLUSH_INTERVAL_MILLIS = 200;
+    /**
+     * The amount of journals of a room that are kept, older journals are deleted.
+     */
+    public static final int MAX_JOURNALS = 20;
+    /**
+     * The maximum time in milliseconds to wait for a running flush when the journal is closed.
+     */
+    public static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    private static final String EXTENSION = ".journal";
+    private static final int MAGIC = 0x54534a31;
+    private static final int VERSION = 1;
+    /**
+     * The size of the parts the file is mapped in, a multiple of the record size.
+     */
+    private static final long CHUNK_SIZE = 98304;
+    private static final long NANOS_PER_MILLI = 1000000;
+    private static final int VALUE = 8;
+    private static final int ARGUMENT = 16;
+    private static final int CHECK = 20;
+    private static final int TYPE = 22;
+    private static final int HASH = 31;
+    private static final int SHORT_BITS = 16;
+    private Path file;
+    private FileChannel channel;
+    private Map<Long, MappedByteBuffer> chunks = new ConcurrentHashMap<>();
+    private AtomicLong position = new AtomicLong(RECORD_SIZE);
+    private AtomicLong written = new AtomicLong();
+    private AtomicInteger writers = new AtomicInteger();
+    private long flushedChunk;
+    private long flushedRecords;
+    private long originEpochNanos;
+    private long originNanoTime;
+    private volatile boolean closed;
+    private volatile boolean ended;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Constructor for a journal, which creates the file and starts forcing it to the disk.
+     * @param newFile The file of the journal, which is replaced if it exists.
+     * @throws IOException When the file could not be created.
+     */
+    public GameJournal(final Path newFile) throws IOException {
+        file = newFile;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        originEpochNanos = System.currentTimeMillis() * NANOS_PER_MILLI;
+        originNanoTime = System.nanoTime();
+        ByteBuffer header = chunk(0);
+        header.putInt(0, MAGIC);
+        header.putInt(Integer.BYTES, VERSION);
+        header.putLong(VALUE, System.currentTimeMillis());
+        header.putInt(ARGUMENT, RECORD_SIZE);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-" + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushWritten, FLUSH_INTERVAL_MILLIS,
+            FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create the journal of a new game of a room in a directory.
+     * @param directory The directory, which is created if it does not exist.
+     * @param roomId The id of the room.
+     * @return The journal.
+     * @throws IOException When the journal could not be created.
+     */
+    public static GameJournal create(final String directory, final long roomId)
+        throws IOException {
+        Path path = Files.createDirectories(Paths.get(directory));
+        GameJournal journal = new GameJournal(path.resolve("room-" + roomId + "-"
+            + System.currentTimeMillis() + EXTENSION));
+        prune(path, roomId);
+        return journal;
+    }
+
+    /**
+     * Delete the oldest journals of a room, so only the last MAX_JOURNALS are kept.
+     * A journal that can not be deleted, like one that is still open, is deleted later.
+     * @param directory The directory of the journals.
+     * @param roomId The id of the room.
+     * @throws IOException When the directory could not be read.
+     */
+    private static void prune(final Path directory, final long roomId) throws IOException {
+        List<Path> journals = listJournals(directory, roomId);
+        for (int i = 0; i < journals.size() - MAX_JOURNALS; i++) {
+            try {
+                Files.deleteIfExists(journals.get(i));
+            } catch (IOException e) {
+                System.out.println("Journal " + journals.get(i) + " could not be deleted: "
+                    + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * List the journals of a room, from the oldest to the last.
+     * @param directory The directory of the journals.
+     * @param roomId The id of the room.
+     * @return The journals, empty if the directory does not exist.
+     * @throws IOException When the directory could not be read.
+     */
+    public static List<Path> listJournals(final Path directory, final long roomId)
+        throws IOException {
+        List<Path> journals = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return journals;
+        }
+        String prefix = "room-" + roomId + "-";
+        try (DirectoryStream<Path> stream =
+                 Files.newDirectoryStream(directory, prefix + "*" + EXTENSION)) {
+            for (Path journal : stream) {
+                journals.add(journal);
+            }
+        }
+        journals.sort(Comparator.comparingLong(journal -> created(journal, prefix)));
+        return journals;
+    }
+
+    /**
+     * Get the time a journal was created from its name.
+     * @param journal The journal.
+     * @param prefix The start of the name of the journal, before the time.
+     * @return The time in milliseconds since the epoch.
+     */
+    private static long created(final Path journal, final String prefix) {
+        String name = journal.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - EXTENSION.length()));
+    }
+
+    /**
+     * Record an event that happens now.
+     * @param type The type of the event.
+     * @param argument The argument of the event.
+     * @param value The value of the event.
+     */
+    public void record(final JournalEvent.Type type, final int argument, final double value) {
+        record(type, System.nanoTime(), argument, value);
+    }
+
+    /**
+     * Record an event. Events recorded after the journal is closed are ignored.
+     * The time is converted to nanoseconds since the epoch, so it outlives this process.
+     * @param type The type of the event.
+     * @param nanoTime The time of the event, as given by System.nanoTime.
+     * @param argument The argument of the event.
+     * @param value The value of the event.
+     */
+    public void record(final JournalEvent.Type type, final long nanoTime, final int argument,
+                       final double value) {
+        append(type, originEpochNanos + nanoTime - originNanoTime, argument, value);
+    }
+
+    /**
+     * Record an event of which the time is known since the epoch, like an event of
+     * the journal of a game that is continued in this journal.
+     * Events recorded after the journal is closed are ignored.
+     * @param event The event.
+     */
+    public void record(final JournalEvent event) {
+        append(event.getType(), event.getTime(), event.getArgument(), event.getValue());
+    }
+
+    /**
+     * Append an event to the journal, unless the journal is closed.
+     * @param type The type of the event.
+     * @param time The time of the event in nanoseconds since the epoch.
+     * @param argument The argument of the event.
+     * @param value The value of the event.
+     */
+    private void append(final JournalEvent.Type type, final long time, final int argument,
+                        final double value) {
+        writers.incrementAndGet();
+        try {
+            if (closed) {
+                return;
+            }
+            write(position.getAndAdd(RECORD_SIZE), time, argument, value, type.ordinal() + 1);
+            written.incrementAndGet();
+            if (type == JournalEvent.Type.GAME_ENDED || type.isChange()) {
+                ended = type == JournalEvent.Type.GAME_ENDED;
+            }
+        } catch (UncheckedIOException e) {
+            closed = true;
+            System.out.println("Journal " + file + " could not be written: " + e.getMessage());
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Write a record at its place in the file. The type is written last,
+     * so a record is not replayed before it is complete.
+     * @param place The place of the record in the file.
+     * @param time The time of the event in nanoseconds since the epoch.
+     * @param argument The argument of the event.
+     * @param value The value of the event.
+     * @param type The type of the event, 1 for the first type.
+     */
+    private void write(final long place, final long time, final int argument,
+                       final double value, final int type) {
+        long bits = Double.doubleToRawLongBits(value);
+        ByteBuffer chunk = chunk(place / CHUNK_SIZE);
+        int offset = (int) (place % CHUNK_SIZE);
+        chunk.putLong(offset, time);
+        chunk.putLong(offset + VALUE, bits);
+        chunk.putInt(offset + ARGUMENT, argument);
+        chunk.putShort(offset + CHECK, check(time, bits, argument, type));
+        chunk.putShort(offset + TYPE, (short) type);
+    }
+
+    /**
+     * Get the mapped chunk of the file at an index, the file grows when a new chunk is mapped.
+     * @param index The index of the chunk.
+     * @return The chunk.
+     */
+    private MappedByteBuffer chunk(final long index) {
+        return chunks.computeIfAbsent(index, key -> {
+            try {
+                return channel.map(FileChannel.MapMode.READ_WRITE, key * CHUNK_SIZE, CHUNK_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Calculate the checksum of a record.
+     * @param time The time of the record.
+     * @param bits The bits of the value of the record.
+     * @param argument The argument of the record.
+     * @param type The type of the record, 1 for the first type.
+     * @return The checksum.
+     */
+    private static short check(final long time, final long bits, final int argument,
+                               final int type) {
+        long hash = ((time * HASH + bits) * HASH + argument) * HASH + type;
+        hash ^= hash >>> Integer.SIZE;
+        return (short) (hash ^ hash >>> SHORT_BITS);
+    }
+
+    /**
+     * Force the records to the disk if any were written since the last time.
+     */
+    private void flushWritten() {
+        long records = written.get();
+        if (records != flushedRecords) {
+            flushedRecords = records;
+            flush();
+        }
+    }
+
+    /**
+     * Force the records written so far to the disk.
+     * When no record was being written, every record before the last chunk is complete and
+     * forced, so those chunks are forgotten. Otherwise they are forced again the next time,
+     * because a writer may still write to them.
+     */
+    public synchronized void flush() {
+        long end = position.get();
+        boolean complete = writers.get() == 0;
+        long last = (end - 1) / CHUNK_SIZE;
+        for (long index = flushedChunk; index <= last; index++) {
+            MappedByteBuffer chunk = chunks.get(index);
+            if (chunk != null) {
+                chunk.force();
+            }
+        }
+        if (complete) {
+            for (long index = flushedChunk; index < last; index++) {
+                chunks.remove(index);
+            }
+            flushedChunk = last;
+        }
+    }
+
+    /**
+     * Close the journal, which records the end of the game, unless the game already ended,
+     * and forces it to the disk.
+     * @throws IOException When the file could not be closed.
+     */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (!ended) {
+            record(JournalEvent.Type.GAME_ENDED, 0, 0);
+        }
+        closed = true;
+        flusher.shutdown();
+        awaitFlusher();
+        while (writers.get() > 0) {
+            Thread.yield();
+        }
+        flush();
+        chunks.clear();
+        truncate();
+        channel.close();
+    }
+
+    /**
+     * Wait until a flush of the background thread that is running is done,
+     * so it does not force chunks that are cleared or a file that is closed.
+     * @throws IOException When the flush did not stop in time or the thread was interrupted.
+     */
+    private void awaitFlusher() throws IOException {
+        try {
+            if (!flusher.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Journal " + file + " is still being flushed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing journal " + file);
+        }
+    }
+
+    /**
+     * Cut the file off after the last record, instead of at the end of its last chunk.
+     * Some systems, like Windows, can not shrink a file while it is mapped,
+     * then the rest of the last chunk stays empty.
+     */
+    private void truncate() {
+        try {
+            channel.truncate(position.get());
+        } catch (IOException e) {
+            System.out.println("Journal " + file + " could not be truncated: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the file of the journal.
+     * @return The file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the amount of events recorded so far.
+     * @return The amount of events.
+     */
+    public long getRecordedEvents() {
+        return written.get();
+    }
+
+    /**
+     * Replay the events of a journal in the order they were recorded.
+     * @param journalFile The file of the journal.
+     * @param consumer The consumer of the events.
+     * @return The amount of events.
+     * @throws IOException When the file could not be read or is not a journal.
+     */
+    public static int replay(final Path journalFile, final Consumer<JournalEvent> consumer)
+        throws IOException {
+        try (FileChannel in = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            long size = in.size();
+            ByteBuffer chunk = mapHeader(in, journalFile);
+            int events = 0;
+            for (long place = RECORD_SIZE; place + RECORD_SIZE <= size; place += RECORD_SIZE) {
+                if (place % CHUNK_SIZE == 0) {
+                    chunk = in.map(FileChannel.MapMode.READ_ONLY, place,
+                        Math.min(size - place, CHUNK_SIZE));
+                }
+                JournalEvent event = read(chunk, (int) (place % CHUNK_SIZE));
+                if (event == null) {
+                    break;
+                }
+                consumer.accept(event);
+                events++;
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Map the first chunk of a journal and check its header.
+     * @param in The channel of the journal.
+     * @param journalFile The file of the journal.
+     * @return The first chunk.
+     * @throws IOException When the file could not be read or is not a journal.
+     */
+    private static ByteBuffer mapHeader(final FileChannel in, final Path journalFile)
+        throws IOException {
+        long size = in.size();
+        ByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, CHUNK_SIZE));
+        if (size < RECORD_SIZE || chunk.getInt(0) != MAGIC
+            || chunk.getInt(Integer.BYTES) != VERSION || chunk.getInt(ARGUMENT) != RECORD_SIZE) {
+            throw new IOException(journalFile + " is not a journal");
+        }
+        return chunk;
+    }
+
+    /**
+     * Read a record of a journal.
+     * @param chunk The chunk of the journal with the record.
+     * @param offset The offset of the record in the chunk.
+     * @return The event, null if the record is empty or not completely written.
+     */
+    private static JournalEvent read(final ByteBuffer chunk, final int offset) {
+        long time = chunk.getLong(offset);
+        long bits = chunk.getLong(offset + VALUE);
+        int argument = chunk.getInt(offset + ARGUMENT);
+        int type = chunk.getShort(offset + TYPE);
+        JournalEvent.Type[] types = JournalEvent.Type.values();
+        if (type < 1 || type > types.length
+            || chunk.getShort(offset + CHECK) != check(time, bits, argument, type)) {
+            return null;
+        }
+        return new JournalEvent(types[type - 1], time, argument, Double.longBitsToDouble(bits));
+    }
+}
@@ -0,0 +1,161 @@
+package journal;
+
+import handlers.CameraHandler;
+import room.Room;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery of a game that did not end, like when the computer that monitors it crashed.
+ * The journal of the game is replayed to rebuild the state of the room, the times the chests
+ * were found and the begin time of the game, as if the game was monitored without interruption.
+ * Only the last journal of a room is recovered, a journal of a game that did not start,
+ * that ended or that was interrupted for more than MAX_INTERRUPTION_MINUTES is not.
+ */
+public class GameRecovery {
+
+    /**
+     * The maximum time in minutes between the last event of a game and its recovery.
+     */
+    public static final long MAX_INTERRUPTION_MINUTES = 30;
+    private static final long NANOS_PER_MILLI = 1000000;
+    private Path file;
+    private long beginTime = -1;
+    private long lastTime;
+    private boolean ended;
+    private List<JournalEvent> changes = new ArrayList<>();
+
+    /**
+     * Constructor for the recovery of a game, which replays its journal.
+     * @param journalFile The file of the journal of the game.
+     * @throws IOException When the journal could not be read.
+     */
+    public GameRecovery(final Path journalFile) throws IOException {
+        file = journalFile;
+        GameJournal.replay(file, this::add);
+    }
+
+    /**
+     * Find the game of a room that should be recovered, which is the game of its last journal
+     * if that game started and did not end.
+     * @param directory The directory of the journals.
+     * @param roomId The id of the room.
+     * @return The recovery of the game, null if there is no game to recover.
+     * @throws IOException When the journals could not be read.
+     */
+    public static GameRecovery find(final String directory, final long roomId)
+        throws IOException {
+        List<Path> journals = GameJournal.listJournals(Paths.get(directory), roomId);
+        if (journals.isEmpty()) {
+            return null;
+        }
+        GameRecovery recovery = new GameRecovery(journals.get(journals.size() - 1));
+        if (!recovery.isUnfinished()) {
+            return null;
+        }
+        return recovery;
+    }
+
+    /**
+     * Add an event of the journal to the recovery.
+     * @param event The event.
+     */
+    private void add(final JournalEvent event) {
+        lastTime = event.getTime();
+        if (event.getType() == JournalEvent.Type.GAME_STARTED) {
+            beginTime = event.getTime();
+        } else if (event.getType() == JournalEvent.Type.GAME_ENDED) {
+            ended = true;
+        } else if (event.getType().isChange()) {
+            ended = false;
+            changes.add(event);
+        }
+    }
+
+    /**
+     * Check if the game started, did not end and was interrupted recently.
+     * A game that changed after it ended, like when the host reopened a chest, did not end.
+     * @return True if the game should be recovered.
+     */
+    public boolean isUnfinished() {
+        long interruption = System.currentTimeMillis() * NANOS_PER_MILLI - lastTime;
+        return beginTime != -1 && !ended
+            && interruption <= TimeUnit.MINUTES.toNanos(MAX_INTERRUPTION_MINUTES);
+    }
+
+    /**
+     * Recover the game: rebuild the state of the room and resume the game in the camera handler.
+     * The events of the game are recorded in the journal of the recovered game,
+     * so the game can be recovered again.
+     * @param room The room, which should not be changed by other threads yet.
+     * @param cameraHandler The camera handler of the room.
+     * @param journal The journal of the recovered game, null to not record the events.
+     * @throws IOException When the journal of the game could not be read.
+     */
+    public void recover(final Room room, final CameraHandler cameraHandler,
+                        final GameJournal journal) throws IOException {
+        long offset = System.nanoTime() - System.currentTimeMillis() * NANOS_PER_MILLI;
+        room.transition(() -> {
+            for (JournalEvent change : changes) {
+                apply(room, beginTime + offset, change.getTime() + offset, change);
+            }
+            return null;
+        });
+        cameraHandler.resumeGame(beginTime + offset);
+        if (journal != null) {
+            GameJournal.replay(file, journal::record);
+        }
+        cameraHandler.getInformationHandler().addInformation("Recovered the game from "
+            + file.getFileName() + " with " + changes.size() + " changes");
+    }
+
+    /**
+     * Apply a change to the room at the time it happened.
+     * The room is updated before and after the change, like the game loop does.
+     * @param room The room.
+     * @param begin The begin time of the game.
+     * @param time The time of the change.
+     * @param change The change.
+     */
+    private static void apply(final Room room, final long begin, final long time,
+                              final JournalEvent change) {
+        room.updateRoom(begin, time);
+        if (change.getType() == JournalEvent.Type.CHEST_OPENED) {
+            room.setNextChestOpened(time);
+        } else if (change.getType() == JournalEvent.Type.SECTION_COMPLETED) {
+            room.setNextSectionOpened();
+        } else {
+            room.setChestSectionsCompletedTill(change.getArgument(), time);
+        }
+        room.updateRoom(begin, time);
+    }
+
+    /**
+     * Get the begin time of the game.
+     * @return The begin time in nanoseconds since the epoch, -1 if the game did not start.
+     */
+    public long getBeginTime() {
+        return beginTime;
+    }
+
+    /**
+     * Get the changes of the room in the game, in the order they were applied.
+     * @return The changes.
+     */
+    public List<JournalEvent> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Get the file of the journal of the game.
+     * @return The file.
+     */
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,118 @@
+package journal;
+
+/**
+ * An event of a game as it is recorded in the journal of the game.
+ * Every event has a type, the time it happened, and an argument and value of which
+ * the meaning depends on the type.
+ */
+public class JournalEvent {
+
+    /**
+     * Enum for the types of events.
+     */
+    public enum Type {
+        /**
+         * The activity of a frame of a camera, the argument is the index of the camera
+         * and the value is the activity.
+         */
+        ACTIVITY,
+        /**
+         * The game started with the first activity, the time is the begin time of the game.
+         */
+        GAME_STARTED,
+        /**
+         * Chests were detected in a frame of a camera, the argument is the index of the camera
+         * and the value is the amount of chests.
+         */
+        CHEST_DETECTED,
+        /**
+         * The next chest was opened, by the host or by the API,
+         * the time is the time the chest was found.
+         */
+        CHEST_OPENED,
+        /**
+         * The host did not approve a detected chest, the time is the time it was detected.
+         */
+        CHEST_REJECTED,
+        /**
+         * The next section of the chest that should be opened was completed.
+         */
+        SECTION_COMPLETED,
+        /**
+         * The host set the progress, the argument is the amount of completed sections.
+         */
+        SECTIONS_COMPLETED_TILL,
+        /**
+         * The game ended, because all chests were opened or the journal was closed.
+         * The cameras may still record their events after it. A change of the chests after it,
+         * like when the host reopens a chest, resumes the game until the next GAME_ENDED.
+         */
+        GAME_ENDED;
+
+        /**
+         * Check if events of this type change the chests of the room.
+         * @return True for the types that open chests or complete sections.
+         */
+        public boolean isChange() {
+            return this == CHEST_OPENED || this == SECTION_COMPLETED
+                || this == SECTIONS_COMPLETED_TILL;
+        }
+    }
+
+    private Type type;
+    private long time;
+    private int argument;
+    private double value;
+
+    /**
+     * Constructor for an event.
+     * @param newType The type of the event.
+     * @param newTime The time of the event in nanoseconds since the epoch.
+     * @param newArgument The argument of the event.
+     * @param newValue The value of the event.
+     */
+    public JournalEvent(final Type newType, final long newTime, final int newArgument,
+                        final double newValue) {
+        type = newType;
+        time = newTime;
+        argument = newArgument;
+        value = newValue;
+    }
+
+    /**
+     * Get the type of the event.
+     * @return The type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the time of the event.
+     * @return The time in nanoseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Get the argument of the event, like the index of a camera.
+     * @return The argument.
+     */
+    public int getArgument() {
+        return argument;
+    }
+
+    /**
+     * Get the value of the event, like an activity.
+     * @return The value.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + time + ", " + argument + ", " + value + ")";
+    }
+}
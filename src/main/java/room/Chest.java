@@ -53,6 +53,21 @@ public class Chest {
 
     }
 
+    /**
+     * Constructor for a copy of a chest, which does not change with the chest.
+     * @param chest The chest to copy.
+     */
+    public Chest(final Chest chest) {
+        chestState = chest.chestState;
+        targetDurationInSec = chest.targetDurationInSec;
+        warningTimeInSec = chest.warningTimeInSec;
+        timeFound = chest.timeFound;
+        beginTime = chest.beginTime;
+        numberOfSubSections = chest.numberOfSubSections;
+        subsectionCompleted = chest.subsectionCompleted.clone();
+        approvedChestFoundByHost = chest.approvedChestFoundByHost;
+    }
+
     /**
      * Method that resets teh chest to WAITING_FOR_SUBSECTION_TO_START.
      */
@@ -70,8 +85,9 @@ public class Chest {
      *                      Waiting         To_Be_Opened
      *                      To_be_Opened    Opened
      * @param previousTimeFound the time at which the previous chest was found
+     * @param now the current time
      */
-    private void updateStatus(final long previousTimeFound) {
+    private void updateStatus(final long previousTimeFound, final long now) {
         if (chestState == WAITING_FOR_SECTION_TO_START) {
             chestState = Status.TO_BE_OPENED;
             timeFound = -1;
@@ -80,7 +96,7 @@ public class Chest {
             && (approvedChestFoundByHost || countSubsectionsCompleted() == numberOfSubSections)) {
             chestState = Status.OPENED;
             if (timeFound < 0) {
-                timeFound = System.nanoTime();
+                timeFound = now;
             }
         }
     }
@@ -96,8 +112,19 @@ public class Chest {
      * @param previousChest preceding chest
      */
     public void updateStatus(final Chest previousChest) {
+        updateStatus(previousChest, System.nanoTime());
+    }
+
+    /**
+     * Method to update a status of a chest at a time when the preceding chest is opened,
+     * see updateStatus.
+     *
+     * @param previousChest preceding chest
+     * @param now the current time, which is the time found when the chest is opened
+     */
+    public void updateStatus(final Chest previousChest, final long now) {
         if (previousChest.getChestState() == Status.OPENED) {
-            updateStatus(previousChest.getTimeFound());
+            updateStatus(previousChest.getTimeFound(), now);
         }
     }
 
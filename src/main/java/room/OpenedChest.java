@@ -22,4 +22,14 @@ public class OpenedChest extends Chest {
        }
    }
 
+    /**
+     * Constructor for the opened chest before the first chest of a game that started at a time.
+     * @param beginTime the time the game started in nanoseconds
+     */
+    public OpenedChest(final long beginTime) {
+        super(NO_SUBSECTION, TARGET_TIME, WARNING_TIME);
+        setApprovedChestFoundByHost();
+        setTimeFound(beginTime);
+    }
+
 }
@@ -95,19 +95,19 @@ public class Progress {
      * @return Number of sections.
      */
     public int getTotalSections() {
-        int total = 0;
-        for (Chest chest : room.getChestList()) {
-            total += chest.getNumberOfSubSections();
-        }
-        return total;
+        return room.getTotalSubsections();
     }
 
     /**
      * Update the progress of the escape room.
+     * The room is updated and its progress is counted in one transition,
+     * so a change of the API on another thread is not seen halfway.
      */
     public void updateProgress() {
-        room.updateRoom();
-        subSectionCount = calculateProgress();
+        subSectionCount = room.transition(() -> {
+            room.updateRoom();
+            return calculateProgress();
+        });
     }
 
     /**
@@ -159,9 +159,11 @@ public class Progress {
     public int newProgress(final int index) {
         int completedSections = getSubSectionCountFromBarIndex(index);
         setSubSectionCount(completedSections);
-        room.setChestSectionsCompletedTill(completedSections);
-        updateProgress();
-        return room.getChestsOpened();
+        return room.transition(() -> {
+            room.setChestSectionsCompletedTill(completedSections);
+            updateProgress();
+            return room.getChestsOpened();
+        });
     }
 
     /**
@@ -169,7 +171,7 @@ public class Progress {
      * @return true if all chests are opened, false otherwise
      */
     public boolean allChestsOpened() {
-        return room.getChestList().size() == room.getChestsOpened();
+        return room.transition(() -> room.getChestList().size() == room.getChestsOpened());
     }
 
     /** Method for when a chest if confirmed by the host.
@@ -177,8 +179,10 @@ public class Progress {
      * @return string format of how many chests are opened
      */
     public String confirmedChestString(final long timestamp) {
-        room.setNextChestOpened(timestamp);
-        return room.getChestsOpened() + "/" + room.getChestList().size();
+        return room.transition(() -> {
+            room.setNextChestOpened(timestamp);
+            return room.getChestsOpened() + "/" + room.getChestList().size();
+        });
     }
 
     /**
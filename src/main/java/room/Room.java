@@ -1,11 +1,24 @@
 package room;
 
+import camera.CameraConfig;
+import handlers.CameraHandler;
 import handlers.InformationHandler;
+import handlers.MetricsHandler;
+import journal.GameJournal;
+import journal.JournalEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Class describing a room as found in the config file.
+ * The state of the chests is changed by the game loop and by the API on other threads,
+ * so every change is a transition that is applied one at a time, see transition.
  */
 public class Room {
     private long id;
@@ -13,8 +26,15 @@ public class Room {
     private int numberOfPeople;
     private long targetDurationInSec;
     private List<String> linkList;
+    private List<CameraConfig> cameraConfigs;
     private int port;
     private InformationHandler informationHandler;
+    private MetricsHandler metricsHandler;
+    private volatile GameJournal journal;
+    private boolean endRecorded;
+    private volatile RoomStatus status;
+    private Queue<FutureTask<?>> transitions = new ConcurrentLinkedQueue<>();
+    private AtomicReference<Thread> writer = new AtomicReference<>();
 
     /**
      * Constructor.
@@ -32,6 +52,10 @@ public class Room {
         numberOfPeople = nOPeople;
         linkList = new ArrayList<>();
         linkList.addAll(cameraLinks);
+        cameraConfigs = new ArrayList<>();
+        for (String link : cameraLinks) {
+            cameraConfigs.add(new CameraConfig(link));
+        }
         chestList = chests;
         targetDurationInSec = duration;
         port = portNumber;
@@ -101,15 +125,132 @@ public class Room {
         this.targetDurationInSec = startsTime;
     }
 
+    /**
+     * Apply a transition to the state of the room and return its result.
+     * Transitions of all threads are queued and applied one at a time, in order, by the thread
+     * that finds no other thread applying them. A transition that runs inside another transition
+     * is applied right away, so a transition can combine the other changes of the room.
+     * @param change the transition, which reads and changes the state of the room
+     * @param <T> the type of the result
+     * @return the result of the transition
+     */
+    public <T> T transition(final Supplier<T> change) {
+        if (writer.get() == Thread.currentThread()) {
+            return change.get();
+        }
+        FutureTask<T> task = new FutureTask<>(change::get);
+        transitions.add(task);
+        applyTransitions();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while changing the room", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Transition of the room failed", e.getCause());
+        }
+    }
+
+    /**
+     * Apply a transition without a result to the state of the room, see transition.
+     * @param change the transition
+     */
+    private void apply(final Runnable change) {
+        transition(() -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /**
+     * Apply the queued transitions, unless another thread is applying them already.
+     * The queue is checked again after the writer is released,
+     * so a transition queued while the last one was applied is never left behind.
+     */
+    private void applyTransitions() {
+        while (!transitions.isEmpty() && writer.compareAndSet(null, Thread.currentThread())) {
+            try {
+                FutureTask<?> task = transitions.poll();
+                while (task != null) {
+                    task.run();
+                    task = transitions.poll();
+                }
+            } finally {
+                writer.set(null);
+            }
+        }
+    }
+
     /**
      * Update the state of the escape room room.
      */
     public void updateRoom() {
-        Chest previousChest = new OpenedChest();
+        apply(() -> updateChests(new OpenedChest(), System.nanoTime()));
+    }
+
+    /**
+     * Update the state of the escape room room, of which the game started at a time.
+     * @param beginTime the time the game started in nanoseconds
+     */
+    public void updateRoom(final long beginTime) {
+        updateRoom(beginTime, System.nanoTime());
+    }
+
+    /**
+     * Update the state of the escape room room at a time, like when a game is replayed.
+     * @param beginTime the time the game started in nanoseconds
+     * @param now the time of the update in nanoseconds
+     */
+    public void updateRoom(final long beginTime, final long now) {
+        apply(() -> updateChests(new OpenedChest(beginTime), now));
+    }
+
+    /**
+     * Update the state of the chests, starting with the chest before the first chest.
+     * @param firstChest the opened chest before the first chest
+     * @param now the time of the update in nanoseconds
+     */
+    private void updateChests(final Chest firstChest, final long now) {
+        Chest previousChest = firstChest;
         for (Chest chest : chestList) {
-            chest.updateStatus(previousChest);
+            chest.updateStatus(previousChest, now);
             previousChest = chest;
         }
+        recordEnd(now);
+    }
+
+    /**
+     * Record the end of the game in the journal once all chests are opened,
+     * so a game that was finished is not recovered when the room is started again.
+     * A change of the chests after it resumes the game, so the end is recorded again
+     * when all chests are opened again.
+     * @param now the time of the update in nanoseconds
+     */
+    private void recordEnd(final long now) {
+        if (journal != null && !endRecorded && !chestList.isEmpty()
+            && getChestsOpened() == chestList.size()) {
+            endRecorded = true;
+            record(JournalEvent.Type.GAME_ENDED, now, 0);
+        }
+    }
+
+    /**
+     * Publish a snapshot of the state of the room, which is served by the API.
+     * Should be called by the loop that updates the room, after updating it.
+     * The snapshot is taken as a transition, so it never shows half of a change.
+     * @param beginTime the time the game started in nanoseconds, -1 if it did not start
+     * @param activity the activity level of the room
+     */
+    public void publishStatus(final long beginTime, final CameraHandler.Activity activity) {
+        apply(() -> status = RoomStatus.of(this, beginTime, activity, System.nanoTime()));
+    }
+
+    /**
+     * Get the last published snapshot of the state of the room.
+     * @return the snapshot, null if none was published yet
+     */
+    public RoomStatus getStatus() {
+        return status;
     }
 
     /**
@@ -117,24 +258,30 @@ public class Room {
      * @param timestamp the timestamp when the chest was opened
      */
     public void setNextChestOpened(final long timestamp) {
-        for (Chest chest : chestList) {
-            if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
-                chest.setApprovedChestFoundByHost();
-                chest.setTimeFound(timestamp);
-                break;
+        apply(() -> {
+            for (Chest chest : chestList) {
+                if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
+                    chest.setApprovedChestFoundByHost();
+                    chest.setTimeFound(timestamp);
+                    record(JournalEvent.Type.CHEST_OPENED, timestamp, 0);
+                    break;
+                }
             }
-        }
+        });
     }
 
     /**
      * Sets the next section with state TO_BE_OPENED completed.
      */
     public void setNextSectionOpened() {
-        for (Chest chest : chestList) {
-            if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
-                chest.subSectionCompleted();
+        apply(() -> {
+            record(JournalEvent.Type.SECTION_COMPLETED, System.nanoTime(), 0);
+            for (Chest chest : chestList) {
+                if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
+                    chest.subSectionCompleted();
+                }
             }
-        }
+        });
     }
 
     /**
@@ -142,12 +289,52 @@ public class Room {
      * @param completedSubSections number of completed sections
      */
     public void setChestSectionsCompletedTill(final int completedSubSections) {
+        setChestSectionsCompletedTill(completedSubSections, System.nanoTime());
+    }
+
+    /**
+     * Sets the chests and subsections completed up till the subsection at completedSections,
+     * at a time which is the time found of the chests that are opened by it.
+     * @param completedSubSections number of completed sections
+     * @param timestamp the time of the change in nanoseconds
+     */
+    public void setChestSectionsCompletedTill(final int completedSubSections,
+                                              final long timestamp) {
+        apply(() -> {
+            record(JournalEvent.Type.SECTIONS_COMPLETED_TILL, timestamp, completedSubSections);
+            completeSectionsTill(completedSubSections, timestamp);
+        });
+    }
+
+    /**
+     * Record a change of the room in the journal of the game, if there is one.
+     * Changes are recorded in their transition, so the journal has them in the order
+     * they were applied.
+     * @param type the type of the change
+     * @param time the time of the change in nanoseconds
+     * @param argument the argument of the change
+     */
+    private void record(final JournalEvent.Type type, final long time, final int argument) {
+        if (journal != null) {
+            journal.record(type, time, argument, 0);
+        }
+        if (type.isChange()) {
+            endRecorded = false;
+        }
+    }
+
+    /**
+     * Sets the chests and subsections completed up till the subsection at completedSections.
+     * @param completedSubSections number of completed sections
+     * @param timestamp the time of the change in nanoseconds
+     */
+    private void completeSectionsTill(final int completedSubSections, final long timestamp) {
         int completedSections = completedSubSections;
         for (Chest chest : chestList) {
             if (chest.getNumberOfSubSections() <= completedSections) {
                 chest.setApprovedChestFoundByHost();
                 if (chest.getTimeFound() < 0) {
-                    chest.setTimeFound(System.nanoTime());
+                    chest.setTimeFound(timestamp);
                 }
                 completedSections -= chest.getNumberOfSubSections();
             } else {
@@ -162,16 +349,34 @@ public class Room {
 
     /**
      * Get the amount of chests opened.
+     * The chests are counted in a transition, so a change of another thread is never half seen.
      * @return amount of chests opened
      */
     public int getChestsOpened() {
-        int chestsOpened = 0;
-        for (Chest chest : chestList) {
-            if (chest.getChestState() == Chest.Status.OPENED) {
-                chestsOpened++;
+        return transition(() -> {
+            int chestsOpened = 0;
+            for (Chest chest : chestList) {
+                if (chest.getChestState() == Chest.Status.OPENED) {
+                    chestsOpened++;
+                }
             }
-        }
-        return chestsOpened;
+            return chestsOpened;
+        });
+    }
+
+    /**
+     * Get copies of the chests, for readers like the GUI that show the state of every chest.
+     * The copies are taken as a transition, so they never show half of a change.
+     * @return the copies of the chests, in order
+     */
+    public List<Chest> getChestSnapshot() {
+        return transition(() -> {
+            List<Chest> snapshot = new ArrayList<>();
+            for (Chest chest : chestList) {
+                snapshot.add(new Chest(chest));
+            }
+            return snapshot;
+        });
     }
 
     /**
@@ -187,21 +392,24 @@ public class Room {
      * For each opened chest the total number of subsections is added to the total.
      * For each to be opened chest the total amount of completed subsections get added to the total.
      * For each waiting for subsection to start chest nothing is added to the total.
+     * The chests are checked in a transition, so a change of another thread is never half seen.
      *
      * @return subSectionCount (=total)
      */
     public int calculateSubsectionsDone() {
-        int progressMeter = 0;
-        // Counts the open chests, chestList is ordered in the following manner:
-        // OPENED : TO_BE_OPENED : WAITING_FOR_SECTION_TO_START
-        for (Chest chest : chestList) {
-            if (chest.getChestState() == Chest.Status.OPENED) {
-                progressMeter += chest.getNumberOfSubSections();
-            } else if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
-                progressMeter += chest.countSubsectionsCompleted();
+        return transition(() -> {
+            int progressMeter = 0;
+            // Counts the open chests, chestList is ordered in the following manner:
+            // OPENED : TO_BE_OPENED : WAITING_FOR_SECTION_TO_START
+            for (Chest chest : chestList) {
+                if (chest.getChestState() == Chest.Status.OPENED) {
+                    progressMeter += chest.getNumberOfSubSections();
+                } else if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
+                    progressMeter += chest.countSubsectionsCompleted();
+                }
             }
-        }
-        return progressMeter;
+            return progressMeter;
+        });
     }
 
     /**
@@ -224,6 +432,22 @@ public class Room {
         return linkList;
     }
 
+    /**
+     * Get the configurations of the cameras.
+     * @return configurations of the cameras
+     */
+    public List<CameraConfig> getCameraConfigs() {
+        return cameraConfigs;
+    }
+
+    /**
+     * Set the configurations of the cameras.
+     * @param configs the configurations of the cameras
+     */
+    public void setCameraConfigs(final List<CameraConfig> configs) {
+        this.cameraConfigs = configs;
+    }
+
     /**
      * Get the informationHandler.
      * @return the informationHandler
@@ -239,4 +463,39 @@ public class Room {
     public void setInformationHandler(final InformationHandler newHandler) {
         this.informationHandler = newHandler;
     }
+
+    /**
+     * Get the journal the changes of the room are recorded in.
+     * @return the journal, null if the changes are not recorded
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Set the journal the changes of the room are recorded in.
+     * @param newJournal the journal, null to stop recording
+     */
+    public void setJournal(final GameJournal newJournal) {
+        apply(() -> {
+            journal = newJournal;
+            endRecorded = false;
+        });
+    }
+
+    /**
+     * Get the metricsHandler.
+     * @return the metricsHandler
+     */
+    public MetricsHandler getMetricsHandler() {
+        return metricsHandler;
+    }
+
+    /**
+     * Set a new metricsHandler.
+     * @param newHandler the new metricsHandler
+     */
+    public void setMetricsHandler(final MetricsHandler newHandler) {
+        this.metricsHandler = newHandler;
+    }
 }
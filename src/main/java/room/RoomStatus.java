@@ -0,0 +1,143 @@
+package room;
+
+import handlers.CameraHandler;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Immutable snapshot of the state of a room, which the API serves without touching the room.
+ * The loop that updates the room publishes a new snapshot after every update,
+ * the snapshot is rendered as JSON once so it can be served to any amount of requests.
+ */
+public final class RoomStatus {
+
+    private final long roomId;
+    private final boolean started;
+    private final CameraHandler.Activity activity;
+    private final int chestsOpened;
+    private final String json;
+
+    /**
+     * Constructor for a snapshot, use of to take one.
+     * @param room The room.
+     * @param beginTime The time the game started in nanoseconds, -1 if it did not start.
+     * @param newActivity The activity level of the room.
+     * @param now The current time in nanoseconds.
+     */
+    @SuppressWarnings("unchecked")
+    private RoomStatus(final Room room, final long beginTime,
+                       final CameraHandler.Activity newActivity, final long now) {
+        roomId = room.getId();
+        started = beginTime != -1;
+        activity = newActivity;
+        chestsOpened = room.getChestsOpened();
+
+        JSONObject status = new JSONObject();
+        status.put("roomId", roomId);
+        status.put("started", started);
+        status.put("elapsed", getSeconds(beginTime, now));
+        status.put("targetDuration", room.getTargetDuration());
+        status.put("activity", activity.name().toLowerCase());
+        status.put("chestsOpened", chestsOpened);
+        status.put("totalChests", room.getChestList().size());
+        status.put("sectionsDone", room.calculateSubsectionsDone());
+        status.put("totalSections", room.getTotalSubsections());
+        status.put("chests", chestsToJson(room, now));
+        json = status.toJSONString();
+    }
+
+    /**
+     * Take a snapshot of the state of a room.
+     * @param room The room.
+     * @param beginTime The time the game started in nanoseconds, -1 if it did not start.
+     * @param activity The activity level of the room.
+     * @param now The current time in nanoseconds.
+     * @return The snapshot.
+     */
+    public static RoomStatus of(final Room room, final long beginTime,
+                                final CameraHandler.Activity activity, final long now) {
+        return new RoomStatus(room, beginTime, activity, now);
+    }
+
+    /**
+     * Create a JSON array with the state and the time spent on every chest of a room.
+     * @param room The room.
+     * @param now The current time in nanoseconds.
+     * @return The chests as JSON array.
+     */
+    @SuppressWarnings("unchecked")
+    private static JSONArray chestsToJson(final Room room, final long now) {
+        JSONArray chests = new JSONArray();
+        for (Chest chest : room.getChestList()) {
+            long seconds = 0;
+            if (chest.getChestState() == Chest.Status.OPENED) {
+                seconds = getSeconds(chest.getBeginTime(), chest.getTimeFound());
+            } else if (chest.getChestState() == Chest.Status.TO_BE_OPENED) {
+                seconds = getSeconds(chest.getBeginTime(), now);
+            }
+            JSONObject object = new JSONObject();
+            object.put("state", chest.getChestState().name().toLowerCase());
+            object.put("sectionsDone", chest.countSubsectionsCompleted());
+            object.put("totalSections", chest.getNumberOfSubSections());
+            object.put("elapsed", seconds);
+            object.put("targetDuration", chest.getTargetDurationInSec());
+            object.put("warningTime", chest.getWarningTimeInSec());
+            chests.add(object);
+        }
+        return chests;
+    }
+
+    /**
+     * Get the whole seconds between two times.
+     * @param begin The first time in nanoseconds, -1 if it is unknown.
+     * @param end The second time in nanoseconds.
+     * @return The seconds, 0 if the first time is unknown.
+     */
+    private static long getSeconds(final long begin, final long end) {
+        if (begin == -1) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toSeconds(Math.max(0, end - begin));
+    }
+
+    /**
+     * Get the id of the room.
+     * @return The id.
+     */
+    public long getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Check if the game in the room started.
+     * @return True if it started, false otherwise.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Get the activity level of the room.
+     * @return The activity level.
+     */
+    public CameraHandler.Activity getActivity() {
+        return activity;
+    }
+
+    /**
+     * Get the amount of opened chests.
+     * @return The amount of opened chests.
+     */
+    public int getChestsOpened() {
+        return chestsOpened;
+    }
+
+    /**
+     * Get the snapshot as JSON.
+     * @return The JSON text.
+     */
+    public String toJson() {
+        return json;
+    }
+}
@@ -0,0 +1,124 @@
+package server;
+
+import camera.CameraConfig;
+import handlers.AnalysisExecutor;
+import handlers.CameraHandler;
+import handlers.InformationHandler;
+import javafx.util.Pair;
+import journal.GameJournal;
+import journal.GameRecovery;
+import org.opencv.core.Mat;
+import room.Room;
+
+import java.io.IOException;
+
+/**
+ * Class that monitors one room without the user interface.
+ * The cameras of the room are analysed on an executor that is shared with the other rooms,
+ * and the state of the room is updated like the RoomController does in the user interface.
+ */
+public class RoomMonitor {
+
+    private Room room;
+    private CameraHandler cameraHandler;
+
+    /**
+     * Constructor for the monitor of a room, which opens the cameras of the room.
+     * @param newRoom The room.
+     * @param executor The executor that analyses the frames of all rooms.
+     */
+    public RoomMonitor(final Room newRoom, final AnalysisExecutor executor) {
+        room = newRoom;
+        cameraHandler = new CameraHandler(new InformationHandler(), executor);
+        cameraHandler.setPaced(true);
+        for (CameraConfig config : room.getCameraConfigs()) {
+            cameraHandler.addCamera(config, room.getChestList().size());
+        }
+        room.setInformationHandler(cameraHandler.getInformationHandler());
+        room.setMetricsHandler(cameraHandler.getMetricsHandler());
+        openJournal();
+    }
+
+    /**
+     * Open the journal of the game, in which the cameras and the room record their events.
+     * When the last game of the room did not end, like after a crash, it is recovered first.
+     */
+    private void openJournal() {
+        try {
+            GameRecovery recovery = GameRecovery.find(GameJournal.DIRECTORY, room.getId());
+            GameJournal journal = GameJournal.create(GameJournal.DIRECTORY, room.getId());
+            if (recovery != null) {
+                recovery.recover(room, cameraHandler, journal);
+            }
+            cameraHandler.setJournal(journal);
+            room.setJournal(journal);
+        } catch (IOException e) {
+            System.out.println("Room " + room.getId() + ": journal could not be opened: "
+                + e.getMessage());
+        }
+    }
+
+    /**
+     * Hand the newest frames of the cameras to the analysis and update the state of the room.
+     * A stream that dropped is reconnected, so only the end of all video files ends the room.
+     * @return True if a camera of the room can still deliver frames, false otherwise.
+     */
+    public boolean update() {
+        cameraHandler.reconnectStreams();
+        cameraHandler.recycleFrames(cameraHandler.processFrames());
+        if (cameraHandler.getBeginTime() != -1) {
+            room.updateRoom(cameraHandler.getBeginTime());
+        }
+        room.publishStatus(cameraHandler.getBeginTime(), cameraHandler.getActive());
+        printInformation();
+        return cameraHandler.hasLiveCameras();
+    }
+
+    /**
+     * Print the information about the room, there is no time log to show it in.
+     * The cutouts of the found chests are released, there is no user interface to show them.
+     */
+    private void printInformation() {
+        InformationHandler information = cameraHandler.getInformationHandler();
+        while (information.getInformationDepth() > 0) {
+            System.out.println("Room " + room.getId() + ": " + information.getInformation());
+        }
+        Pair<Mat, Long> chest = information.getMatrix();
+        while (chest != null) {
+            chest.getKey().release();
+            chest = information.getMatrix();
+        }
+    }
+
+    /**
+     * Close the cameras and the journal of the room.
+     */
+    public void close() {
+        cameraHandler.closeHandler();
+        GameJournal journal = room.getJournal();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Room " + room.getId() + ": journal could not be closed: "
+                    + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the room.
+     * @return The room.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Get the camera handler of the room.
+     * @return The camera handler.
+     */
+    public CameraHandler getCameraHandler() {
+        return cameraHandler;
+    }
+}
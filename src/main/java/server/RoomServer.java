@@ -0,0 +1,161 @@
+package server;
+
+import api.APIHandler;
+import handlers.AnalysisExecutor;
+import handlers.JsonHandler;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import room.Room;
+
+/**
+ * Server that monitors all rooms of a config file without the user interface.
+ * The frames of all cameras are analysed on one shared pool of workers, on which every camera
+ * gets its turn, so a room with many cameras cannot starve the other rooms.
+ * The API of every room is served on one port under /rooms/{id}.
+ */
+public class RoomServer {
+
+    /**
+     * The time between two updates of the rooms in milliseconds, about the rate of the
+     * animation timer of the user interface.
+     */
+    public static final long UPDATE_INTERVAL_MILLIS = 16;
+    private static final String USAGE = "Usage: RoomServer <config.json> [port]";
+    private List<RoomMonitor> monitors = new CopyOnWriteArrayList<>();
+    private APIHandler apiHandler;
+    private ScheduledExecutorService scheduler;
+    private CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Constructor for a server of several rooms, which opens the cameras of all rooms.
+     * @param rooms The rooms.
+     * @param port The port the API is served on.
+     * @param threads The amount of threads the frames of all rooms are analysed on.
+     */
+    public RoomServer(final List<Room> rooms, final int port, final int threads) {
+        AnalysisExecutor executor = new AnalysisExecutor(threads);
+        for (Room room : rooms) {
+            monitors.add(new RoomMonitor(room, executor));
+        }
+        apiHandler = new APIHandler(rooms, port);
+    }
+
+    /**
+     * Monitor all rooms of a config file until the cameras of all rooms stopped.
+     * @param args The config file and optionally the port.
+     * @throws InterruptedException When interrupted while the rooms are monitored.
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        int port = APIHandler.DEFAULT_PORT;
+        if (args.length > 1) {
+            port = Integer.parseInt(args[1]);
+        }
+        loadLibraries();
+        List<Room> rooms = new JsonHandler(args[0]).createRooms();
+        RoomServer server =
+            new RoomServer(rooms, port, Runtime.getRuntime().availableProcessors());
+        server.start();
+        // Stopping the process, like with Ctrl+C, ends the games as if the rooms stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "room-server-stop"));
+        System.out.println("Monitoring " + rooms.size() + " rooms on port " + port);
+        server.awaitStop();
+    }
+
+    /**
+     * Load the OpenCV libraries, like the main of the user interface does.
+     */
+    private static void loadLibraries() {
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs"
+            + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs"
+            + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Start the API and the updates of the rooms.
+     */
+    public void start() {
+        apiHandler.startServer();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(this::update, 0, UPDATE_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Update every room. A room whose cameras stopped, or whose update failed,
+     * is closed without affecting the other rooms.
+     */
+    private synchronized void update() {
+        for (RoomMonitor monitor : monitors) {
+            boolean running = false;
+            try {
+                running = monitor.update();
+            } catch (RuntimeException e) {
+                System.out.println("Room " + monitor.getRoom().getId() + " failed: " + e);
+            }
+            if (!running) {
+                System.out.println("Room " + monitor.getRoom().getId() + " stopped");
+                monitor.close();
+                monitors.remove(monitor);
+            }
+        }
+        if (monitors.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Stop the updates and the API, and close the cameras and journals of all rooms.
+     * Waits for an update that is running, and does nothing when the server is stopped.
+     */
+    public synchronized void stop() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        for (RoomMonitor monitor : new ArrayList<>(monitors)) {
+            monitor.close();
+        }
+        monitors.clear();
+        apiHandler.stopServer();
+        stopped.countDown();
+    }
+
+    /**
+     * Wait until the server is stopped.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Get the monitors of the rooms that are still running.
+     * @return The monitors.
+     */
+    public List<RoomMonitor> getMonitors() {
+        return monitors;
+    }
+
+    /**
+     * Returns the API handler of the server.
+     * @return The API handler.
+     */
+    public APIHandler getAPIHandler() {
+        return apiHandler;
+    }
+}
@@ -7,6 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import handlers.JsonHandler;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.junit.jupiter.api.Test;
 import room.Room;
@@ -34,7 +37,26 @@ public class APIHandlerTest {
         Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
         APIHandler apiHandler = new APIHandler(room);
         HandlerCollection collection = (HandlerCollection) apiHandler.getServer().getHandler();
-        assertEquals(2, collection.getHandlers().length);
+        final int handlers = 4;
+        assertEquals(handlers, collection.getHandlers().length);
+    }
+
+    /**
+     * Test if the API of every room is served under its id.
+     */
+    @Test
+    void testMultipleRooms() {
+        final int handlers = 8;
+        Room first = new Room(1, 2, new ArrayList<>(), new ArrayList<>(), 0, 0);
+        Room second = new Room(2, 2, new ArrayList<>(), new ArrayList<>(), 0, 0);
+        APIHandler apiHandler =
+            new APIHandler(Arrays.asList(first, second), APIHandler.DEFAULT_PORT);
+        HandlerCollection collection = (HandlerCollection) apiHandler.getServer().getHandler();
+        assertEquals(handlers, collection.getHandlers().length);
+        assertEquals("/rooms/1/chest",
+            ((ContextHandler) collection.getHandlers()[0]).getContextPath());
+        assertEquals("/rooms/2/status",
+            ((ContextHandler) collection.getHandlers()[handlers - 1]).getContextPath());
     }
 
     /**
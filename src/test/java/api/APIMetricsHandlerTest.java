@@ -0,0 +1,99 @@
+package api;
+
+import camera.Camera;
+import handlers.AnalysisExecutor;
+import handlers.CameraHandler;
+import handlers.JsonHandler;
+import handlers.MetricsHandler;
+import org.junit.jupiter.api.Test;
+import room.Room;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for APIMetricsHandler class.
+ */
+public class APIMetricsHandlerTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test if the metrics of the cameras are returned as JSON.
+     * @throws IOException exception
+     */
+    @Test
+    void testHandle() throws IOException {
+        Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
+        CameraHandler cameraHandler = new CameraHandler();
+        cameraHandler.addCamera("files" + File.separator + "postit.mov");
+        room.setMetricsHandler(cameraHandler.getMetricsHandler());
+        APIHandler handler = new APIHandler(room);
+        handler.startServer();
+
+        HttpURLConnection http = (HttpURLConnection)
+            new URL("http://localhost:8080/metrics").openConnection();
+        http.connect();
+        assertEquals(HttpURLConnection.HTTP_OK, http.getResponseCode());
+        String body = new Scanner(http.getInputStream()).useDelimiter("\\A").next();
+        assertTrue(body.contains("\"capture\""));
+
+        handler.stopServer();
+        cameraHandler.closeHandler();
+    }
+
+    /**
+     * Test if the length of a body with characters outside ASCII is its length in bytes.
+     * @throws IOException exception
+     */
+    @Test
+    void testHandleUtf8() throws IOException {
+        String link = "caf\u00e9.mov";
+        Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
+        MetricsHandler metrics = new MetricsHandler(new AnalysisExecutor(1));
+        metrics.addCamera(new Camera(null, link));
+        room.setMetricsHandler(metrics);
+        APIHandler handler = new APIHandler(room);
+        handler.startServer();
+
+        HttpURLConnection http = (HttpURLConnection)
+            new URL("http://localhost:8080/metrics").openConnection();
+        http.connect();
+        String body = new Scanner(http.getInputStream(), "UTF-8").useDelimiter("\\A").next();
+        assertTrue(body.contains(link));
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, http.getContentLength());
+        handler.stopServer();
+    }
+
+    /**
+     * Test if an empty JSON object is returned without metrics.
+     * @throws IOException exception
+     */
+    @Test
+    void testHandleWithoutMetrics() throws IOException {
+        Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
+        APIHandler handler = new APIHandler(room);
+        handler.startServer();
+
+        HttpURLConnection http = (HttpURLConnection)
+            new URL("http://localhost:8080/metrics").openConnection();
+        http.connect();
+        assertEquals("{}", new Scanner(http.getInputStream()).useDelimiter("\\A").next());
+        handler.stopServer();
+    }
+}
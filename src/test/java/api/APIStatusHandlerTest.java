@@ -0,0 +1,69 @@
+package api;
+
+import handlers.CameraHandler;
+import handlers.JsonHandler;
+import org.junit.jupiter.api.Test;
+import room.Room;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for APIStatusHandler class.
+ */
+public class APIStatusHandlerTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test if the published status of the room is returned as JSON.
+     * @throws IOException exception
+     */
+    @Test
+    void testHandle() throws IOException {
+        Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
+        room.publishStatus(-1, CameraHandler.Activity.ZERO);
+        APIHandler handler = new APIHandler(room);
+        handler.startServer();
+
+        HttpURLConnection http = (HttpURLConnection)
+            new URL("http://localhost:8080/status").openConnection();
+        http.connect();
+        assertEquals(HttpURLConnection.HTTP_OK, http.getResponseCode());
+        String body = new Scanner(http.getInputStream()).useDelimiter("\\A").next();
+        assertTrue(body.contains("\"started\":false"));
+
+        handler.stopServer();
+    }
+
+    /**
+     * Test if an empty JSON object is returned before a status is published.
+     * @throws IOException exception
+     */
+    @Test
+    void testHandleWithoutStatus() throws IOException {
+        Room room = new JsonHandler("files/test/testConfig.json").createSingleRoom();
+        APIHandler handler = new APIHandler(room);
+        handler.startServer();
+
+        HttpURLConnection http = (HttpURLConnection)
+            new URL("http://localhost:8080/status").openConnection();
+        http.connect();
+        assertEquals("{}", new Scanner(http.getInputStream()).useDelimiter("\\A").next());
+        handler.stopServer();
+    }
+}
@@ -0,0 +1,86 @@
+package batch;
+
+import handlers.CameraHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the batch analysis class.
+ */
+public class BatchAnalysisTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private final String configFile = "files/test/testConfig.json";
+
+    /**
+     * Test that every analysed frame of the videos gets a line in the timeline.
+     */
+    @Test
+    void runTest() throws Exception {
+        StringWriter out = new StringWriter();
+        int frames = new BatchAnalysis(configFile, new ArrayList<>()).run(out);
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertTrue(frames > 0);
+        assertEquals(frames + 1, lines.length);
+        assertTrue(lines[0].startsWith("time,camera,frame"));
+        for (int i = 1; i < lines.length; i++) {
+            int frame = Integer.parseInt(lines[i].split(",")[2]);
+            assertEquals(0, frame % CameraHandler.ANALYSIS_FREQUENCY);
+        }
+    }
+
+    /**
+     * Test that the analysis in short segments on several threads analyses the same frames.
+     * The activity and chests of segments are approximate, so only the frames are compared.
+     */
+    @Test
+    void parallelTest() throws Exception {
+        final int threads = 4;
+        BatchAnalysis sequential = new BatchAnalysis(configFile, new ArrayList<>());
+        sequential.setThreads(1);
+        StringWriter sequentialOut = new StringWriter();
+        int frames = sequential.run(sequentialOut);
+
+        BatchAnalysis parallel = new BatchAnalysis(configFile, new ArrayList<>());
+        parallel.setThreads(threads);
+        parallel.setSegmentSeconds(1);
+        StringWriter parallelOut = new StringWriter();
+        assertEquals(frames, parallel.run(parallelOut));
+
+        String[] sequentialLines = sequentialOut.toString().split(System.lineSeparator());
+        String[] parallelLines = parallelOut.toString().split(System.lineSeparator());
+        for (int i = 1; i < sequentialLines.length; i++) {
+            String[] expected = sequentialLines[i].split(",");
+            String[] actual = parallelLines[i].split(",");
+            assertEquals(expected[1], actual[1]);
+            assertEquals(expected[2], actual[2]);
+        }
+    }
+
+    /**
+     * Test that a video that can not be opened is reported.
+     */
+    @Test
+    void missingVideoTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchAnalysis(configFile,
+            Collections.singletonList("files/missing.mov")));
+    }
+}
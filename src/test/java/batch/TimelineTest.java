@@ -0,0 +1,63 @@
+package batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the timeline class.
+ */
+public class TimelineTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private static final int FRAMES = 100;
+    private static final int STEP = 10;
+    private static final int START = 60;
+    private static final double ACTIVITY = 10;
+    private static final double MILLIS_PER_FRAME = 40;
+
+    /**
+     * Test that the entries of both cameras are written with the state of the room.
+     */
+    @Test
+    void writeTest() throws Exception {
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (int frame = 0; frame < FRAMES; frame += STEP) {
+            double activity = 0;
+            if (frame >= START) {
+                activity = ACTIVITY;
+            }
+            entries.add(new TimelineEntry(1, frame, frame * MILLIS_PER_FRAME, activity, 0));
+            entries.add(new TimelineEntry(0, frame, frame * MILLIS_PER_FRAME, 0, 0));
+        }
+        Collections.sort(entries);
+        StringWriter out = new StringWriter();
+        new Timeline(2).write(out, entries);
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(Timeline.HEADER, lines[0]);
+        assertEquals(entries.size() + 1, lines.length);
+        assertTrue(lines[1].startsWith("0.000,0,0,"));
+        assertTrue(lines[2].startsWith("0.000,1,0,"));
+        int startLine = START / STEP * 2 + 2;
+        assertTrue(lines[startLine - 1].contains(",ZERO,"));
+        assertTrue(lines[startLine].endsWith("\"Detected activity\""));
+        assertTrue(!lines[startLine + 1].contains(",ZERO,"));
+    }
+}
@@ -0,0 +1,47 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ActivityHistogram class.
+ */
+class ActivityHistogramTest {
+
+    private static final double LOW = 1.5;
+    private static final double MIDDLE = 10;
+    private static final double HIGH = 200;
+
+    /**
+     * Test that the activities lower than or equal to an activity are counted.
+     */
+    @Test
+    void countAtMostTest() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        histogram.add(HIGH);
+        histogram.add(LOW);
+        histogram.add(MIDDLE);
+
+        assertEquals(3, histogram.size());
+        assertEquals(0, histogram.countAtMost(0));
+        assertEquals(1, histogram.countAtMost(LOW));
+        assertEquals(2, histogram.countAtMost(MIDDLE));
+        assertEquals(3, histogram.countAtMost(ActivityHistogram.MAX_ACTIVITY));
+    }
+
+    /**
+     * Test that activities outside the range are counted in the first or last bin.
+     */
+    @Test
+    void outOfRangeTest() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        histogram.add(-1);
+        histogram.add(ActivityHistogram.MAX_ACTIVITY * 2);
+
+        assertEquals(1, histogram.countAtMost(0));
+        assertEquals(2, histogram.countAtMost(ActivityHistogram.MAX_ACTIVITY));
+        histogram.clear();
+        assertEquals(0, histogram.size());
+    }
+}
@@ -0,0 +1,50 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ActivitySeries class.
+ */
+class ActivitySeriesTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Test that activities are stored in order.
+     */
+    @Test
+    void addTest() {
+        final double first = 1;
+        final double second = 3;
+        ActivitySeries series = new ActivitySeries();
+        series.add(first);
+        series.add(second);
+
+        assertEquals(2, series.size());
+        assertEquals(second, series.get(1), DELTA);
+        assertArrayEquals(new double[] {first, second}, series.toArray(), DELTA);
+        assertThrows(IndexOutOfBoundsException.class, () -> series.get(2));
+    }
+
+    /**
+     * Test that a full series is downsampled and stays within its capacity.
+     */
+    @Test
+    void downsampleTest() {
+        final int capacity = 4;
+        final int activities = 5;
+        ActivitySeries series = new ActivitySeries(capacity);
+        for (int i = 0; i < activities; i++) {
+            series.add(i);
+        }
+
+        assertEquals(2, series.getStride());
+        assertArrayEquals(new double[] {0.5, 2.5}, series.toArray(), DELTA);
+        series.add(activities);
+        assertArrayEquals(new double[] {0.5, 2.5, 4.5}, series.toArray(), DELTA);
+    }
+}
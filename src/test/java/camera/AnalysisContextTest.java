@@ -0,0 +1,76 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.videoio.VideoCapture;
+
+/**
+ * Tests for the AnalysisContext class.
+ */
+class AnalysisContextTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private static final int ROWS = 48;
+    private static final int COLS = 64;
+    private static final double GREY = 100;
+
+    /**
+     * Test that the foreground is only subtracted once and shared.
+     */
+    @Test
+    void foregroundTest() {
+        Camera camera = new Camera(new VideoCapture(), "test");
+        Mat frame = new Mat(ROWS, COLS, CvType.CV_8UC3, new Scalar(GREY, GREY, GREY));
+        AnalysisContext context = new AnalysisContext(camera, frame);
+
+        Mat foreground = context.getForeground();
+        assertSame(foreground, context.getForeground());
+        assertEquals(CvType.CV_8UC1, foreground.type());
+        assertEquals(frame.size(), foreground.size());
+        assertEquals(1, camera.getMetrics().getHistogram(CameraMetrics.Stage.SUBTRACTION)
+            .getCount());
+        context.release();
+    }
+
+    /**
+     * Test that the foreground covers the whole frame, so activity outside the region of
+     * interest is measured, and that the foreground of the region is a view on it.
+     */
+    @Test
+    void foregroundRegionTest() {
+        final int right = 31;
+        final int bottom = 15;
+        Camera camera = new Camera(new VideoCapture(), "test");
+        camera.setRegionOfInterest(new RegionOfInterest(Arrays.asList(new Point(0, 0),
+            new Point(right, 0), new Point(0, bottom))));
+        Mat frame = new Mat(ROWS, COLS, CvType.CV_8UC3, new Scalar(GREY, GREY, GREY));
+        AnalysisContext context = new AnalysisContext(camera, frame);
+
+        assertEquals(new Rect(0, 0, right + 1, bottom + 1), context.getRegion());
+        assertEquals(frame.size(), context.getForeground().size());
+        Mat regionForeground = context.getRegionForeground();
+        assertEquals(context.getRegion().size(), regionForeground.size());
+        assertSame(regionForeground, context.getRegionForeground());
+        assertEquals(context.getForeground().dataAddr(), regionForeground.dataAddr());
+        context.release();
+    }
+}
@@ -0,0 +1,77 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the AnalysisRate class.
+ */
+class AnalysisRateTest {
+
+    private static final int INTERVAL = 10;
+
+    /**
+     * Test that a frame is due once every interval.
+     */
+    @Test
+    void isDueTest() {
+        AnalysisRate rate = new AnalysisRate(INTERVAL);
+
+        assertTrue(rate.isDue(0));
+        assertFalse(rate.isDue(1));
+        assertFalse(rate.isDue(INTERVAL - 1));
+        assertTrue(rate.isDue(INTERVAL + 2));
+        assertFalse(rate.isDue(INTERVAL * 2));
+        assertTrue(rate.isDue(INTERVAL * 2 + 2));
+    }
+
+    /**
+     * Test that a shorter interval moves the next frame that is due forward.
+     */
+    @Test
+    void shorterIntervalTest() {
+        AnalysisRate rate = new AnalysisRate(INTERVAL);
+        assertTrue(rate.isDue(0));
+
+        rate.setInterval(1);
+        assertEquals(1, rate.getInterval());
+        assertTrue(rate.isDue(1));
+        assertTrue(rate.isDue(2));
+
+        rate.setInterval(0);
+        assertEquals(1, rate.getInterval());
+    }
+
+    /**
+     * Test that a longer interval only applies after the next frame that is due.
+     */
+    @Test
+    void longerIntervalTest() {
+        AnalysisRate rate = new AnalysisRate(INTERVAL);
+        assertTrue(rate.isDue(0));
+        rate.setInterval(INTERVAL * 2);
+        assertTrue(rate.isDue(INTERVAL));
+        assertFalse(rate.isDue(INTERVAL * 2));
+        assertTrue(rate.isDue(INTERVAL * 3));
+    }
+
+    /**
+     * Test that a boost starts when a chest appears and ends at its frame.
+     */
+    @Test
+    void boostTest() {
+        AnalysisRate rate = new AnalysisRate(INTERVAL);
+
+        assertFalse(rate.chestsAppeared(0));
+        assertTrue(rate.chestsAppeared(2));
+        assertFalse(rate.chestsAppeared(2));
+        assertFalse(rate.chestsAppeared(1));
+
+        rate.boost(INTERVAL);
+        assertTrue(rate.isBoosted(INTERVAL - 1));
+        assertFalse(rate.isBoosted(INTERVAL));
+    }
+}
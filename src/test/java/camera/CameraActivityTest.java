@@ -11,6 +11,7 @@ import java.util.List;
 import static junit.framework.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test for the Camera activity Class.
@@ -67,17 +68,17 @@ public class CameraActivityTest {
         int parts = CameraActivity.FRAMES;
 
         assertNotNull(camera.getActivity());
-        assertEquals(activity.getActivityList().get(parts), new ArrayList());
+        assertTrue(activity.getActivityList().get(parts).isEmpty());
 
         activity.setStarted(true);
         activity.setFrameCounter(0);
         activity.addActivity(frame1, parts, activity.getKnns().get(parts));
-        assertEquals(activity.getActivityList().get(parts), new ArrayList());
+        assertTrue(activity.getActivityList().get(parts).isEmpty());
 
         activity.setFrameCounter(Integer.MAX_VALUE);
         activity.addActivity(frame2, parts, activity.getKnns().get(parts));
 
-        assertNotEquals(activity.getActivityList().get(parts), new ArrayList());
+        assertEquals(1, activity.getActivityList().get(parts).size());
     }
 
     /**
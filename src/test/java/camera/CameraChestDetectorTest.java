@@ -2,9 +2,14 @@ package camera;
 
 import handlers.CameraHandler;
 import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+import org.opencv.videoio.VideoCapture;
 
 import java.io.File;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -48,4 +53,38 @@ class CameraChestDetectorTest {
 
 
     }
+
+    /**
+     * Test that the chest candidates are not searched in a frame without foreground,
+     * once the background subtraction has learned the background.
+     */
+    @Test
+    void noForegroundTest() {
+        final int rows = 120;
+        final int cols = 160;
+        final int frames = 10;
+        final double grey = 100;
+        Camera camera = new Camera(new VideoCapture(), "test");
+        Mat frame = new Mat(rows, cols, CvType.CV_8UC3, new Scalar(grey, grey, grey));
+        checkForChests(camera, frame, frames);
+        long tracked = camera.getMetrics().getHistogram(CameraMetrics.Stage.TRACKING).getCount();
+
+        checkForChests(camera, frame, frames);
+        assertEquals(tracked, camera.getMetrics().getHistogram(CameraMetrics.Stage.TRACKING)
+            .getCount());
+    }
+
+    /**
+     * Check a frame for chests several times.
+     * @param camera the camera of the frame
+     * @param frame the frame
+     * @param times the amount of times
+     */
+    private void checkForChests(final Camera camera, final Mat frame, final int times) {
+        for (int i = 0; i < times; i++) {
+            AnalysisContext context = new AnalysisContext(camera, frame);
+            assertTrue(camera.getChestDetector().checkForChests(context, frame).isEmpty());
+            context.release();
+        }
+    }
 }
@@ -11,11 +11,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import handlers.CameraHandler;
 import java.io.File;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
 
 /**
  * Class for testing Camera.
@@ -144,6 +147,82 @@ class CameraTest {
         assertEquals(videoLink, cam.getLink());
     }
 
+    /**
+     * Test that the analysis scale is rounded to a power of two and scales the frame.
+     */
+    @Test
+    void analysisScaleTest() {
+        final double third = 0.3;
+        final double quarter = 0.25;
+        final int size = 16;
+        cameraHandler = new CameraHandler();
+        Camera cam = cameraHandler.addCamera(videoLink);
+        assertEquals(1, cam.getAnalysisScale());
+        cam.setAnalysisScale(third);
+        assertEquals(quarter, cam.getAnalysisScale());
+
+        Mat scaled = cam.scaleForAnalysis(Mat.zeros(size, size, CvType.CV_8UC3));
+        assertEquals(size / 4, scaled.cols());
+        cameraHandler.closeHandler();
+    }
+
+    /**
+     * Test that a paced video gives its frames at its frame rate,
+     * and a video that is not paced as fast as they are asked for.
+     * @throws InterruptedException When the test is interrupted.
+     */
+    @Test
+    void pacedTest() throws InterruptedException {
+        final long duration = 400;
+        cameraHandler = new CameraHandler();
+        cameraHandler.setPaced(true);
+        Camera paced = cameraHandler.addCamera(videoLink);
+        cameraHandler.setPaced(false);
+        Camera fast = cameraHandler.addCamera(videoLink);
+        Thread.sleep(duration);
+
+        int pacedFrames = 0;
+        int fastFrames = 0;
+        long end = System.currentTimeMillis() + duration;
+        while (System.currentTimeMillis() < end) {
+            pacedFrames += countNew(paced);
+            fastFrames += countNew(fast);
+        }
+        double interval = new PlaybackClock(new VideoCapture(videoLink)
+            .get(Videoio.CAP_PROP_FPS)).getFrameInterval();
+        assertTrue(pacedFrames > 0);
+        assertTrue(pacedFrames <= TimeUnit.MILLISECONDS.toNanos(duration) / interval + 2);
+        assertTrue(fastFrames > pacedFrames);
+        cameraHandler.closeHandler();
+    }
+
+    /**
+     * Get the last frame of a camera and count it if it is new.
+     * @param cam The camera.
+     * @return 1 if the frame is new, 0 otherwise.
+     */
+    private int countNew(final Camera cam) {
+        cam.getMatPool().recycle(cam.getLastFrame());
+        if (cam.hasNewFrame()) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Test that the read ahead of a camera is at least the minimum,
+     * so the capture thread can decode a frame while one is shown.
+     */
+    @Test
+    void readAheadTest() {
+        final int frames = 4;
+        Camera camera = new Camera(new VideoCapture(), "test");
+        camera.setReadAhead(frames);
+        assertEquals(frames, camera.getReadAhead());
+        camera.setReadAhead(1);
+        assertEquals(Camera.MIN_READ_AHEAD, camera.getReadAhead());
+    }
+
     /**
      * Method that loops till the end of a the videolink video.
      */
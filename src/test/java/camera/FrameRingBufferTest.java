@@ -0,0 +1,103 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+/**
+ * Tests for the FrameRingBuffer class.
+ */
+class FrameRingBufferTest {
+
+    private static final int SIZE = 10;
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Write a frame filled with value in the ring.
+     * @param ring the ring
+     * @param value the value of every pixel
+     * @throws InterruptedException when interrupted
+     */
+    private void writeFrame(final FrameRingBuffer ring, final int value)
+        throws InterruptedException {
+        Mat slot = ring.nextWriteSlot();
+        slot.create(SIZE, SIZE, CvType.CV_8UC1);
+        slot.setTo(new Scalar(value));
+        ring.publish();
+    }
+
+    /**
+     * Test that an empty ring gives no frame.
+     */
+    @Test
+    void readEmptyTest() {
+        FrameRingBuffer ring = new FrameRingBuffer(FrameRingBuffer.DEFAULT_CAPACITY, false);
+        assertFalse(ring.readInto(new Mat()));
+    }
+
+    /**
+     * Test that a ring which is not lossless only gives the newest frame.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void readNewestTest() throws InterruptedException {
+        FrameRingBuffer ring = new FrameRingBuffer(FrameRingBuffer.DEFAULT_CAPACITY, false);
+        writeFrame(ring, 1);
+        writeFrame(ring, 2);
+
+        Mat target = new Mat();
+        assertTrue(ring.readInto(target));
+        assertEquals(2, target.get(0, 0)[0]);
+        assertEquals(1, ring.getDroppedFrames());
+        assertFalse(ring.readInto(target));
+    }
+
+    /**
+     * Test that a lossless ring gives every frame in order.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void readLosslessTest() throws InterruptedException {
+        FrameRingBuffer ring = new FrameRingBuffer(FrameRingBuffer.DEFAULT_CAPACITY, true);
+        writeFrame(ring, 1);
+        writeFrame(ring, 2);
+
+        Mat target = new Mat();
+        assertTrue(ring.readInto(target));
+        assertEquals(1, target.get(0, 0)[0]);
+        assertTrue(ring.readInto(target));
+        assertEquals(2, target.get(0, 0)[0]);
+        assertEquals(0, ring.getDroppedFrames());
+    }
+
+    /**
+     * Test that the frames that are written but not read are available.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void availableFramesTest() throws InterruptedException {
+        FrameRingBuffer ring = new FrameRingBuffer(FrameRingBuffer.DEFAULT_CAPACITY, true);
+        assertEquals(0, ring.getAvailableFrames());
+        writeFrame(ring, 1);
+        writeFrame(ring, 2);
+        assertEquals(2, ring.getAvailableFrames());
+
+        ring.readInto(new Mat());
+        assertEquals(1, ring.getAvailableFrames());
+    }
+}
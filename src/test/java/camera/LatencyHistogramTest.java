@@ -0,0 +1,56 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the LatencyHistogram class.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Test that small latencies are counted exactly.
+     */
+    @Test
+    void smallLatencyTest() {
+        final int latencies = 10;
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= latencies; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(latencies, histogram.getCount());
+        assertEquals(latencies / 2, histogram.getPercentile(50));
+        assertEquals(latencies, histogram.getPercentile(100));
+        assertEquals(latencies, histogram.getMax());
+    }
+
+    /**
+     * Test that the percentiles of large latencies are accurate within the bucket size.
+     */
+    @Test
+    void largeLatencyTest() {
+        final long millisecond = 1000000;
+        final double accuracy = 1.0 / 16;
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(millisecond);
+        histogram.record(2 * millisecond);
+
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= millisecond && median <= millisecond * (1 + accuracy));
+        assertEquals(2 * millisecond, histogram.getPercentile(100));
+        assertEquals(1.5 * millisecond, histogram.getMean());
+    }
+
+    /**
+     * Test that an empty histogram returns 0.
+     */
+    @Test
+    void emptyTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean());
+    }
+}
@@ -0,0 +1,73 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * Tests for the MatPool class.
+ */
+class MatPoolTest {
+
+    private static final int ROWS = 10;
+    private static final int COLS = 20;
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test that a borrowed Mat has the requested size and type.
+     */
+    @Test
+    void borrowTest() {
+        MatPool pool = new MatPool();
+        Mat mat = pool.borrow(ROWS, COLS, CvType.CV_8UC3);
+
+        assertEquals(ROWS, mat.rows());
+        assertEquals(COLS, mat.cols());
+        assertEquals(CvType.CV_8UC3, mat.type());
+        assertEquals(1, pool.getCreated());
+    }
+
+    /**
+     * Test that a recycled Mat is borrowed again for the same size and type only.
+     */
+    @Test
+    void recycleTest() {
+        MatPool pool = new MatPool();
+        Mat mat = pool.borrow(ROWS, COLS, CvType.CV_8UC1);
+        pool.recycle(mat);
+
+        assertNotSame(mat, pool.borrow(ROWS, COLS, CvType.CV_8UC3));
+        assertSame(mat, pool.borrow(ROWS, COLS, CvType.CV_8UC1));
+        assertEquals(1, pool.getReused());
+    }
+
+    /**
+     * Test that matrices above the idle limit are released.
+     */
+    @Test
+    void evictTest() {
+        MatPool pool = new MatPool(1);
+        Mat mat1 = pool.borrow(ROWS, COLS, CvType.CV_8UC1);
+        Mat mat2 = pool.borrow(ROWS, COLS, CvType.CV_8UC1);
+        pool.recycle(mat1);
+        pool.recycle(mat2);
+
+        assertEquals(1, pool.getReleased());
+        pool.clear();
+        assertEquals(2, pool.getReleased());
+    }
+}
@@ -0,0 +1,54 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the PlaybackClock class.
+ */
+class PlaybackClockTest {
+
+    private static final double FRAME_RATE = 20;
+    private static final long INTERVAL = 50000000;
+    private static final long START = 1000000000;
+
+    /**
+     * Test that the interval follows from the frame rate, or the default frame rate.
+     */
+    @Test
+    void frameIntervalTest() {
+        assertEquals(INTERVAL, new PlaybackClock(FRAME_RATE).getFrameInterval());
+        assertEquals(new PlaybackClock(PlaybackClock.DEFAULT_FRAME_RATE).getFrameInterval(),
+            new PlaybackClock(0).getFrameInterval());
+    }
+
+    /**
+     * Test that the first frame is due right away and the next frames at the frame rate.
+     */
+    @Test
+    void isDueTest() {
+        PlaybackClock clock = new PlaybackClock(FRAME_RATE);
+        assertTrue(clock.isDue(1, START));
+        assertFalse(clock.isDue(2, START + INTERVAL - 1));
+        assertTrue(clock.isDue(2, START + INTERVAL));
+        assertFalse(clock.isDue(3, START + INTERVAL));
+    }
+
+    /**
+     * Test that a late frame is due when it arrives and the frames after it follow at the
+     * frame rate, instead of all at once to catch up.
+     */
+    @Test
+    void lateTest() {
+        final long delay = 10 * INTERVAL;
+        PlaybackClock clock = new PlaybackClock(FRAME_RATE);
+        clock.isDue(1, START);
+        clock.late(2, START + delay);
+        assertTrue(clock.isDue(2, START + delay));
+        assertFalse(clock.isDue(3, START + delay));
+        assertTrue(clock.isDue(3, START + delay + INTERVAL));
+    }
+}
@@ -0,0 +1,70 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the RectGrid class.
+ */
+class RectGridTest {
+
+    private static final int FRAME_WIDTH = 640;
+    private static final int FRAME_HEIGHT = 480;
+    private static final int CELL_SIZE = 40;
+
+    /**
+     * Test that overlapping and touching rectangles are found, and others are not.
+     */
+    @Test
+    void overlapsAnyTest() {
+        final int x = 100;
+        final int size = 50;
+        RectGrid grid = new RectGrid();
+        grid.add(x, x, size, size);
+        grid.build(FRAME_WIDTH, FRAME_HEIGHT, CELL_SIZE);
+
+        assertTrue(grid.overlapsAny(x + size / 2, x + size / 2, size, size));
+        assertTrue(grid.overlapsAny(x + size, x, size, size));
+        assertFalse(grid.overlapsAny(x + size + 1, x, size, size));
+        assertFalse(grid.overlapsAny(0, 0, size, size));
+    }
+
+    /**
+     * Test that rectangles outside the frame are clamped to the grid.
+     */
+    @Test
+    void outsideFrameTest() {
+        final int size = 100;
+        RectGrid grid = new RectGrid();
+        grid.add(FRAME_WIDTH - size / 2, FRAME_HEIGHT - size / 2, size, size);
+        grid.build(FRAME_WIDTH, FRAME_HEIGHT, CELL_SIZE);
+
+        assertTrue(grid.overlapsAny(FRAME_WIDTH + size / 4, FRAME_HEIGHT, size, size));
+        assertFalse(grid.overlapsAny(-size, -size, size / 2, size / 2));
+    }
+
+    /**
+     * Test that the grid can be rebuilt with more rectangles than before.
+     */
+    @Test
+    void rebuildTest() {
+        final int rectangles = 100;
+        final int size = 5;
+        RectGrid grid = new RectGrid();
+        grid.build(FRAME_WIDTH, FRAME_HEIGHT, CELL_SIZE);
+        assertFalse(grid.overlapsAny(0, 0, size, size));
+
+        for (int i = 0; i < rectangles; i++) {
+            grid.add(i * size * 2, i, size, size);
+        }
+        grid.build(FRAME_WIDTH, FRAME_HEIGHT, CELL_SIZE);
+        assertEquals(rectangles, grid.size());
+        assertTrue(grid.overlapsAny(FRAME_WIDTH - 1, 0, 1, FRAME_HEIGHT));
+        grid.clear();
+        grid.build(FRAME_WIDTH, FRAME_HEIGHT, CELL_SIZE);
+        assertFalse(grid.overlapsAny(0, 0, FRAME_WIDTH, FRAME_HEIGHT));
+    }
+}
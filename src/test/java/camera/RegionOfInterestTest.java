@@ -0,0 +1,115 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+
+/**
+ * Tests for the RegionOfInterest class.
+ */
+class RegionOfInterestTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private static final int FRAME_SIZE = 100;
+    private static final double LEFT = 20;
+    private static final double RIGHT = 60;
+
+    /**
+     * Create a triangle with a horizontal top edge and the point at the bottom left.
+     * @return The region of interest.
+     */
+    private RegionOfInterest createTriangle() {
+        List<Point> points = Arrays.asList(new Point(LEFT, LEFT), new Point(RIGHT, LEFT),
+            new Point(LEFT, RIGHT));
+        return new RegionOfInterest(points);
+    }
+
+    /**
+     * Test that a polygon needs at least three corners.
+     */
+    @Test
+    void tooFewPointsTest() {
+        List<Point> points = Arrays.asList(new Point(0, 0), new Point(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RegionOfInterest(points));
+    }
+
+    /**
+     * Test that the bounding box is scaled and kept inside the frame.
+     */
+    @Test
+    void getBoundsTest() {
+        final double half = 0.5;
+        final int halfLeft = 10;
+        final int halfSide = 21;
+        Mat frame = new Mat(FRAME_SIZE, FRAME_SIZE, CvType.CV_8UC1);
+        Mat halfFrame = new Mat(FRAME_SIZE / 2, FRAME_SIZE / 2, CvType.CV_8UC1);
+        RegionOfInterest region = createTriangle();
+
+        assertEquals(new Rect((int) LEFT, (int) LEFT, (int) (RIGHT - LEFT) + 1,
+            (int) (RIGHT - LEFT) + 1), region.getBounds(frame, 1));
+        assertEquals(new Rect(halfLeft, halfLeft, halfSide, halfSide),
+            region.getBounds(halfFrame, half));
+
+        RegionOfInterest large = new RegionOfInterest(Arrays.asList(new Point(-1, -1),
+            new Point(FRAME_SIZE * 2, 0), new Point(0, FRAME_SIZE * 2)));
+        assertEquals(new Rect(0, 0, FRAME_SIZE, FRAME_SIZE), large.getBounds(frame, 1));
+    }
+
+    /**
+     * Test that the pixels outside the polygon are set to zero.
+     */
+    @Test
+    void applyTest() {
+        Mat frame = new Mat(FRAME_SIZE, FRAME_SIZE, CvType.CV_8UC1, new Scalar(1));
+        RegionOfInterest region = createTriangle();
+        Mat box = frame.submat(region.getBounds(frame, 1));
+        region.apply(box, 1);
+
+        int side = (int) (RIGHT - LEFT) + 1;
+        int inside = Core.countNonZero(box);
+        assertEquals(FRAME_SIZE * FRAME_SIZE - side * side + inside, Core.countNonZero(frame));
+        assertEquals(side * side / 2, inside, side);
+        assertEquals(1, box.get(0, 0)[0]);
+        assertEquals(0, box.get(side - 1, side - 1)[0]);
+    }
+
+    /**
+     * Test that every camera of a configuration gets a region of its own,
+     * so cameras that are analysed in parallel do not share a mask.
+     */
+    @Test
+    void applyToTest() {
+        CameraConfig config = new CameraConfig("test");
+        config.setRegionOfInterest(createTriangle());
+        Camera first = new Camera(null, "test");
+        Camera second = new Camera(null, "test");
+        config.applyTo(first);
+        config.applyTo(second);
+
+        assertNotSame(first.getRegionOfInterest(), second.getRegionOfInterest());
+        assertNotSame(config.getRegionOfInterest(), first.getRegionOfInterest());
+        assertEquals(config.getRegionOfInterest().getPolygon(),
+            first.getRegionOfInterest().getPolygon());
+    }
+}
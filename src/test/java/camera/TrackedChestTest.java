@@ -0,0 +1,50 @@
+package camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Rect;
+
+/**
+ * Tests for the TrackedChest class.
+ */
+class TrackedChestTest {
+
+    private static final int SIZE = 40;
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Test that the position follows the measurements and is predicted with the velocity.
+     */
+    @Test
+    void predictTest() {
+        final int step = 10;
+        final int frames = 20;
+        TrackedChest chest = new TrackedChest(1, 0, 0, SIZE, SIZE);
+        for (int i = 1; i <= frames; i++) {
+            chest.predict();
+            chest.update(i * step, 0, SIZE, SIZE);
+        }
+        chest.predict();
+
+        Rect rect = chest.getRect();
+        assertTrue(Math.abs(rect.x - (frames + 1) * step) <= 2);
+        assertEquals(0, rect.y);
+        assertEquals(1, chest.getMisses());
+        assertEquals(frames + 1, chest.getHits());
+    }
+
+    /**
+     * Test the intersection over union with a rectangle.
+     */
+    @Test
+    void intersectionOverUnionTest() {
+        final double third = 1.0 / 3;
+        TrackedChest chest = new TrackedChest(1, 0, 0, SIZE, SIZE);
+
+        assertEquals(1, chest.intersectionOverUnion(0, 0, SIZE, SIZE), DELTA);
+        assertEquals(third, chest.intersectionOverUnion(SIZE / 2, 0, SIZE, SIZE), DELTA);
+        assertEquals(0, chest.intersectionOverUnion(SIZE, SIZE, SIZE, SIZE), DELTA);
+    }
+}
@@ -0,0 +1,65 @@
+package gui;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test the FrameRenderer class.
+ */
+public class FrameRendererTest {
+
+    private static final int ROWS = 10;
+    private static final int COLS = 20;
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test that a BGR frame is rendered with the right size and colour.
+     */
+    @Test
+    void renderTest() {
+        PlatformImpl.startup(() -> { });
+        final int blue = 255;
+        FrameRenderer renderer = new FrameRenderer();
+        Mat frame = new Mat(ROWS, COLS, CvType.CV_8UC3, new Scalar(blue, 0, 0));
+
+        Image image = renderer.render(frame);
+        assertEquals(COLS, (int) image.getWidth());
+        assertEquals(ROWS, (int) image.getHeight());
+        assertEquals(Color.BLUE, image.getPixelReader().getColor(0, 0));
+    }
+
+    /**
+     * Test that the image is only replaced when the size of the frame changes.
+     */
+    @Test
+    void reuseImageTest() {
+        PlatformImpl.startup(() -> { });
+        FrameRenderer renderer = new FrameRenderer();
+        assertNull(renderer.render(new Mat()));
+
+        Image image = renderer.render(Mat.zeros(ROWS, COLS, CvType.CV_8UC1));
+        assertSame(image, renderer.render(Mat.zeros(ROWS, COLS, CvType.CV_8UC3)));
+        assertNotSame(image, renderer.render(Mat.zeros(COLS, ROWS, CvType.CV_8UC3)));
+    }
+}
@@ -14,14 +14,15 @@ import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test the VideoController class.
  */
 public class VideoControllerTest {
+    private static final long TIMEOUT = 5000;
     private String videoLink = "files" + File.separator + "postit.mov";
     private File file = new File(videoLink);
 
@@ -46,10 +47,11 @@ public class VideoControllerTest {
     }
 
     /**
-     * Verify that frames are being returned.
+     * Verify that frames are being rendered in a reused image.
      */
     @Test
     void updateTest() {
+        PlatformImpl.startup(() -> { });
         VideoController videoController = new VideoController();
         Controller.setCameraHandler(new CameraHandler());
         assertTrue(videoController.isClosed());
@@ -65,10 +67,16 @@ public class VideoControllerTest {
         videoController.update(0);
         assertFalse(videoController.isClosed());
         assertNotNull(videoController.getImageViews().get(0));
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (videoController.getImageViews().get(0).getImage() == null
+            && System.currentTimeMillis() < deadline) {
+            videoController.update(0);
+        }
         Image im = videoController.getImageViews().get(0).getImage();
+        assertNotNull(im);
 
         videoController.update(0);
-        assertNotEquals(im, videoController.getImageViews().get(0).getImage());
+        assertSame(im, videoController.getImageViews().get(0).getImage());
     }
 
     /**
@@ -0,0 +1,125 @@
+package handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import camera.Camera;
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Mat;
+
+/**
+ * Tests for the AnalysisExecutor class.
+ */
+class AnalysisExecutorTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test that every submitted frame is analysed when the workers keep up.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void submitTest() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(2);
+        AnalysisExecutor executor = new AnalysisExecutor(2, (camera, frame) -> done.countDown());
+
+        executor.submit(new Camera(null, "linkToCamOne"), new Mat());
+        executor.submit(new Camera(null, "linkToCamTwo"), new Mat());
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(2, executor.getSubmittedFrames());
+        assertEquals(0, executor.getDroppedFrames());
+    }
+
+    /**
+     * Test that cameras with the same link, like in different rooms, get a slot each.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void sameLinkTest() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AnalysisExecutor executor = new AnalysisExecutor(2, (camera, frame) -> {
+            done.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        executor.submit(new Camera(null, "linkToCamOne"), new Mat());
+        executor.submit(new Camera(null, "linkToCamOne"), new Mat());
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(0, executor.getDroppedFrames());
+        release.countDown();
+    }
+
+    /**
+     * Test that a waiting frame is replaced by a newer frame of the same camera.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void latestWinsTest() throws InterruptedException {
+        final int frames = 3;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AnalysisExecutor executor = new AnalysisExecutor(1, (camera, frame) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Camera camera = new Camera(null, "linkToCamOne");
+
+        executor.submit(camera, new Mat());
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        executor.submit(camera, new Mat());
+        executor.submit(camera, new Mat());
+        release.countDown();
+
+        assertEquals(frames, executor.getSubmittedFrames());
+        assertEquals(1, executor.getDroppedFrames());
+    }
+
+    /**
+     * Test that removing a camera waits for the frame of the camera that is being analysed.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void removeWaitsForAnalysisTest() throws InterruptedException {
+        final long duration = 100;
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        AnalysisExecutor executor = new AnalysisExecutor(1, (camera, frame) -> {
+            started.countDown();
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.set(true);
+        });
+        Camera camera = new Camera(null, "linkToCamOne");
+
+        executor.submit(camera, new Mat());
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        executor.remove(camera);
+        assertTrue(finished.get());
+    }
+}
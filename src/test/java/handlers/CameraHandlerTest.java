@@ -110,6 +110,27 @@ class CameraHandlerTest {
         assertTrue(ch.isChanged());
     }
 
+    /**
+     * Test that the cameras are live until the video ended, unlike isChanged,
+     * which is false as soon as one camera has no new frame.
+     */
+    @Test
+    void testHasLiveCameras() {
+        final long timeout = 10000;
+        CameraHandler ch = new CameraHandler();
+        assertFalse(ch.hasLiveCameras());
+        ch.addCamera(videoLink);
+        ch.processFrames();
+        assertTrue(ch.hasLiveCameras());
+
+        long deadline = System.currentTimeMillis() + timeout;
+        while (ch.hasLiveCameras() && System.currentTimeMillis() < deadline) {
+            ch.recycleFrames(ch.processFrames());
+        }
+        assertFalse(ch.hasLiveCameras());
+        ch.closeHandler();
+    }
+
     /**
      * Test closeHandler method.
      */
@@ -161,16 +182,14 @@ class CameraHandlerTest {
     }
 
     /**
-     * Test that a stream timer is added when a stream is added.
+     * Test that a capture thread is started when a camera is added and stopped when closed.
      */
     @Test
-    void testStreamTimer() {
+    void testCaptureThread() {
         CameraHandler ch = new CameraHandler();
-        String bigBunny = "rtsp://wowzaec2demo.streamlock.net/vod/mp4:BigBuckBunny_115k.mov";
-        ch.addCamera(bigBunny);
-        assertEquals(1, ch.getTimers().size());
-        ch.getTimers().get(0).handle(System.nanoTime());
-        ch.processFrames();
-        assertEquals(0, ch.getTimers().size());
+        Camera camera = ch.addCamera(videoLink);
+        assertTrue(camera.isCapturing());
+        ch.closeHandler();
+        assertFalse(camera.isCapturing());
     }
 }
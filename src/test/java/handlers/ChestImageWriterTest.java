@@ -0,0 +1,150 @@
+package handlers;
+
+import org.json.simple.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the ChestImageWriter class.
+ */
+class ChestImageWriterTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private static final int SIZE = 120;
+    private static final long TIMEOUT = 10000;
+    private Path directory;
+
+    /**
+     * Create the directory of the images, which is removed when the tests are done.
+     * @throws IOException When the directory could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("chests");
+        directory.toFile().deleteOnExit();
+    }
+
+    /**
+     * Create a noisy image of a chest.
+     * @return The image.
+     */
+    private Mat createImage() {
+        final double mean = 128;
+        final double deviation = 40;
+        Mat image = new Mat(SIZE, SIZE, CvType.CV_8UC3);
+        Core.randn(image, mean, deviation);
+        return image;
+    }
+
+    /**
+     * Remove a written image when the tests are done.
+     * @param name The name of the image.
+     * @return The file of the image.
+     */
+    private File written(final String name) {
+        File file = directory.resolve(name).toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Test that the images are written in the background to files named after their timestamp.
+     * @throws InterruptedException When the test is interrupted.
+     */
+    @Test
+    void writeTest() throws InterruptedException {
+        ChestImageWriter writer = new ChestImageWriter();
+        Mat image = createImage();
+        assertTrue(writer.submit(image, directory.toString(), TimeUnit.SECONDS.toNanos(2)));
+
+        assertTrue(writer.awaitBacklog(TIMEOUT));
+        File file = written("2000.png");
+        assertTrue(file.exists());
+        Mat read = Imgcodecs.imread(file.getPath());
+        assertEquals(SIZE, read.rows());
+        assertEquals(1, writer.getWritten());
+        assertEquals(0, writer.getBacklog());
+        assertEquals(0, image.cols());
+    }
+
+    /**
+     * Test that an image that could not be encoded is counted as failed without a file,
+     * and that the writer continues with the next image.
+     * @throws InterruptedException When the test is interrupted.
+     */
+    @Test
+    void failedTest() throws InterruptedException {
+        ChestImageWriter writer = new ChestImageWriter();
+        assertTrue(writer.submit(new Mat(), directory.toString(), TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(writer.awaitBacklog(TIMEOUT));
+        assertEquals(1, writer.getFailed());
+        assertEquals(0, writer.getWritten());
+        assertFalse(written("1000.png").exists());
+
+        assertTrue(writer.submit(createImage(), directory.toString(),
+            TimeUnit.SECONDS.toNanos(2)));
+        assertTrue(writer.awaitBacklog(TIMEOUT));
+        assertTrue(written("2000.png").exists());
+        assertEquals(1, writer.getWritten());
+        assertEquals(1, writer.getFailed());
+    }
+
+    /**
+     * Test that JPEG images get smaller with a lower quality.
+     * @throws InterruptedException When the test is interrupted.
+     */
+    @Test
+    void jpegQualityTest() throws InterruptedException {
+        final int low = 10;
+        final int high = 100;
+        ChestImageWriter writer = new ChestImageWriter();
+        writer.setFormat(ChestImageWriter.Format.JPEG);
+        writer.setJpegQuality(low);
+        writer.submit(createImage(), directory.toString(), TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(writer.awaitBacklog(TIMEOUT));
+        writer.setJpegQuality(high);
+        writer.submit(createImage(), directory.toString(), TimeUnit.MILLISECONDS.toNanos(2));
+        assertTrue(writer.awaitBacklog(TIMEOUT));
+
+        assertTrue(written("1.jpg").length() < written("2.jpg").length());
+        assertFalse(written("1.png").exists());
+    }
+
+    /**
+     * Test that the backlog of the writer is part of the metrics.
+     */
+    @Test
+    void metricsTest() {
+        MetricsHandler metrics = new MetricsHandler(new AnalysisExecutor(1));
+        assertFalse(metrics.toJson().containsKey("chestImages"));
+
+        metrics.setImageWriter(new ChestImageWriter());
+        JSONObject images = (JSONObject) metrics.toJson().get("chestImages");
+        assertNotNull(images);
+        assertEquals(0, images.get("backlog"));
+    }
+}
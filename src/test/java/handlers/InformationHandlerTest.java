@@ -1,13 +1,17 @@
 package handlers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 import java.io.File;
+import java.util.Arrays;
 import javafx.util.Pair;
 import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 
 /**
@@ -100,4 +104,95 @@ public class InformationHandlerTest {
         InformationHandler handler = new InformationHandler();
         assertNotNull(handler.getInfQueue());
     }
+
+    /**
+     * Test that the oldest information is dropped when the queue is full.
+     */
+    @Test
+    void testInformationDropOldest() {
+        InformationHandler handler = new InformationHandler(2, 1,
+            InformationHandler.OverflowPolicy.DROP_OLDEST);
+        handler.addInformation("first");
+        handler.addInformation("second");
+        handler.addInformation("third");
+        assertEquals(2, handler.getInformationDepth());
+        assertEquals(1, handler.getDroppedInformation());
+        assertEquals("second", handler.getInformation());
+    }
+
+    /**
+     * Test that the oldest matrix is released when the queue is full.
+     */
+    @Test
+    void testMatrixDropOldest() {
+        InformationHandler handler = new InformationHandler(1, 1,
+            InformationHandler.OverflowPolicy.DROP_OLDEST);
+        Mat first = Mat.ones(2, 2, CvType.CV_8UC1);
+        handler.addMatrix(new Pair<>(first, (long) 1));
+        handler.addMatrix(new Pair<>(new Mat(), (long) 2));
+        assertTrue(first.empty());
+        assertEquals(1, handler.getMatrixDepth());
+        assertEquals(1, handler.getDroppedMatrices());
+        assertEquals((long) 2, (long) handler.getMatrix().getValue());
+    }
+
+    /**
+     * Test that a waiting matrix of the same source is replaced with the coalesce policy.
+     */
+    @Test
+    void testMatrixCoalesce() {
+        final int capacity = 4;
+        InformationHandler handler = new InformationHandler(1, capacity,
+            InformationHandler.OverflowPolicy.COALESCE);
+        handler.addMatrix("camera1", new Pair<>(new Mat(), (long) 1));
+        handler.addMatrix("camera2", new Pair<>(new Mat(), (long) 2));
+        handler.addMatrix("camera1", new Pair<>(new Mat(), (long) 3));
+        assertEquals(2, handler.getMatrixDepth());
+        assertEquals(1, handler.getDroppedMatrices());
+        assertEquals((long) 2, (long) handler.getMatrix().getValue());
+        assertEquals((long) 3, (long) handler.getMatrix().getValue());
+    }
+
+    /**
+     * Test that all matrices of a frame are kept with the coalesce policy,
+     * and that they are replaced by the matrices of the next frame of the same source.
+     */
+    @Test
+    void testMatrixCoalesceFrame() {
+        final int capacity = 8;
+        final long second = 2;
+        InformationHandler handler = new InformationHandler(1, capacity,
+            InformationHandler.OverflowPolicy.COALESCE);
+        Mat first = Mat.ones(2, 2, CvType.CV_8UC1);
+        handler.addMatrices("camera1", Arrays.asList(new Pair<>(first, (long) 1),
+            new Pair<>(new Mat(), (long) 1)));
+        assertEquals(2, handler.getMatrixDepth());
+
+        handler.addMatrices("camera1", Arrays.asList(new Pair<>(new Mat(), second),
+            new Pair<>(new Mat(), second)));
+        assertEquals(2, handler.getMatrixDepth());
+        assertEquals(2, handler.getDroppedMatrices());
+        assertTrue(first.empty());
+        assertEquals(second, (long) handler.getMatrix().getValue());
+        assertEquals(second, (long) handler.getMatrix().getValue());
+    }
+
+    /**
+     * Test that a matrix that was taken from the queue is not dropped by the next frame
+     * of its source, since its new owner released it.
+     */
+    @Test
+    void testMatrixCoalesceAfterPoll() {
+        final int capacity = 4;
+        InformationHandler handler = new InformationHandler(1, capacity,
+            InformationHandler.OverflowPolicy.COALESCE);
+        Mat first = Mat.ones(2, 2, CvType.CV_8UC1);
+        handler.addMatrix("camera1", new Pair<>(first, (long) 1));
+        assertEquals(first, handler.getMatrix().getKey());
+
+        handler.addMatrix("camera1", new Pair<>(new Mat(), (long) 2));
+        assertEquals(0, handler.getDroppedMatrices());
+        assertFalse(first.empty());
+        assertEquals(1, handler.getMatrixDepth());
+    }
 }
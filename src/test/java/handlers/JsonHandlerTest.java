@@ -1,6 +1,8 @@
 package handlers;
 
+import camera.CameraConfig;
 import org.junit.jupiter.api.Test;
+import org.opencv.core.Point;
 import room.Chest;
 import room.Room;
 
@@ -32,6 +34,7 @@ public class JsonHandlerTest {
      */
     private final String jsonFile = "files/test/testConfig.json";
     private final String jsonFile2 = "files/test/testConfig2.json";
+    private final String cameraFile = "files/test/testCameraConfig.json";
     private final int jsonPeople = 5;
     private final int jsonChests = 3;
     private JsonHandler handler;
@@ -55,6 +58,36 @@ public class JsonHandlerTest {
         assertEquals(2, list.size());
     }
 
+    /**
+     * Test the getCameraConfigs method, the analysis scale is optional.
+     */
+    @Test
+    void getCameraConfigsTest() {
+        final double half = 0.5;
+        handler = new JsonHandler(cameraFile);
+        List<CameraConfig> list = handler.getCameraConfigs(0);
+        assertEquals(2, list.size());
+        assertEquals("files/postit.mov", list.get(0).getLink());
+        assertEquals(CameraConfig.DEFAULT_ANALYSIS_SCALE, list.get(0).getAnalysisScale());
+        assertEquals(half, list.get(1).getAnalysisScale());
+    }
+
+    /**
+     * Test that the region of interest of a camera is read, and is optional.
+     */
+    @Test
+    void getRegionOfInterestTest() {
+        final int corners = 4;
+        final double far = 4000;
+        handler = new JsonHandler(cameraFile);
+        List<CameraConfig> list = handler.getCameraConfigs(0);
+        List<Point> polygon = list.get(0).getRegionOfInterest().getPolygon();
+        assertEquals(corners, polygon.size());
+        assertEquals(far, polygon.get(1).x);
+        assertEquals(0, polygon.get(1).y);
+        assertNull(list.get(1).getRegionOfInterest());
+    }
+
     /**
      * Test the getAmountPeople method.
      */
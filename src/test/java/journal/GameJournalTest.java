@@ -0,0 +1,199 @@
+package journal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the GameJournal class.
+ */
+class GameJournalTest {
+
+    private static final long NANOS_PER_MILLI = 1000000;
+    private Path file;
+
+    /**
+     * Create the file of the journal, which is removed when the tests are done.
+     * @throws IOException When the file could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("game", ".journal");
+        file.toFile().deleteOnExit();
+    }
+
+    /**
+     * Test that the recorded events are replayed in order, ending with the end of the game.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void replayTest() throws IOException {
+        final double activity = 12.5;
+        long before = System.currentTimeMillis() * NANOS_PER_MILLI;
+        GameJournal journal = new GameJournal(file);
+        journal.record(JournalEvent.Type.ACTIVITY, 1, activity);
+        journal.record(JournalEvent.Type.SECTIONS_COMPLETED_TILL, 3, 0);
+        journal.close();
+
+        List<JournalEvent> events = new ArrayList<>();
+        assertEquals(3, GameJournal.replay(file, events::add));
+        assertEquals(JournalEvent.Type.ACTIVITY, events.get(0).getType());
+        assertEquals(1, events.get(0).getArgument());
+        assertEquals(activity, events.get(0).getValue());
+        assertTrue(events.get(0).getTime() >= before - NANOS_PER_MILLI);
+        assertEquals(3, events.get(1).getArgument());
+        assertEquals(JournalEvent.Type.GAME_ENDED, events.get(2).getType());
+        assertEquals(3, journal.getRecordedEvents());
+    }
+
+    /**
+     * Test that the events recorded at the same time on several threads are all replayed.
+     * @throws Exception When the journal could not be written or read.
+     */
+    @Test
+    void concurrentTest() throws Exception {
+        final int threads = 4;
+        final int events = 100000;
+        GameJournal journal = new GameJournal(file);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            final int camera = i;
+            executor.submit(() -> {
+                for (int j = 0; j < events; j++) {
+                    journal.record(JournalEvent.Type.ACTIVITY, camera, j);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        journal.close();
+
+        int[] counts = new int[threads];
+        GameJournal.replay(file, event -> {
+            if (event.getType() == JournalEvent.Type.ACTIVITY) {
+                counts[event.getArgument()]++;
+            }
+        });
+        for (int count : counts) {
+            assertEquals(events, count);
+        }
+    }
+
+    /**
+     * Test that the replay stops at a record that was not completely written.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void tornRecordTest() throws IOException {
+        GameJournal journal = new GameJournal(file);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, 0, 0);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, 0, 0);
+        journal.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(2 * GameJournal.RECORD_SIZE);
+            raf.writeLong(0);
+        }
+
+        assertEquals(1, GameJournal.replay(file, event -> { }));
+    }
+
+    /**
+     * Test that nothing is recorded after the journal is closed.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void closedTest() throws IOException {
+        GameJournal journal = new GameJournal(file);
+        journal.close();
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, 0, 0);
+        journal.close();
+
+        assertEquals(1, GameJournal.replay(file, event -> { }));
+    }
+
+    /**
+     * Test that the file is cut off after the last record when the journal is closed.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void truncateTest() throws IOException {
+        GameJournal journal = new GameJournal(file);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, 0, 0);
+        assertTrue(Files.size(file) > 3 * GameJournal.RECORD_SIZE);
+        journal.close();
+
+        assertEquals(3 * GameJournal.RECORD_SIZE, Files.size(file));
+        assertEquals(2, GameJournal.replay(file, event -> { }));
+    }
+
+    /**
+     * Test that a journal that is closed while its records are flushed in the background
+     * keeps every record and is cut off after the last one.
+     * @throws IOException When the journal could not be written or read.
+     * @throws InterruptedException When the test is interrupted.
+     */
+    @Test
+    void closeWhileFlushingTest() throws IOException, InterruptedException {
+        final int records = 1000;
+        GameJournal journal = new GameJournal(file);
+        for (int i = 0; i < records; i++) {
+            journal.record(JournalEvent.Type.ACTIVITY, i, i);
+        }
+        Thread.sleep(GameJournal.FLUSH_INTERVAL_MILLIS);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, 0, 0);
+        journal.close();
+
+        assertEquals(records + 2, GameJournal.replay(file, event -> { }));
+        assertEquals((records + 3) * GameJournal.RECORD_SIZE, Files.size(file));
+    }
+
+    /**
+     * Test that only the last journals of a room are kept when a journal is created.
+     * @throws IOException When the journals could not be written or read.
+     */
+    @Test
+    void pruneTest() throws IOException {
+        final long roomId = 3;
+        Path directory = Files.createTempDirectory("journals");
+        directory.toFile().deleteOnExit();
+        Path other = Files.createFile(directory.resolve("room-4-1.journal"));
+        other.toFile().deleteOnExit();
+        for (int i = 0; i < GameJournal.MAX_JOURNALS; i++) {
+            Files.createFile(directory.resolve("room-" + roomId + "-" + i + ".journal"))
+                .toFile().deleteOnExit();
+        }
+        GameJournal journal = GameJournal.create(directory.toString(), roomId);
+        journal.getFile().toFile().deleteOnExit();
+        journal.close();
+
+        List<Path> journals = GameJournal.listJournals(directory, roomId);
+        assertEquals(GameJournal.MAX_JOURNALS, journals.size());
+        assertEquals(directory.resolve("room-" + roomId + "-1.journal"), journals.get(0));
+        assertEquals(journal.getFile(), journals.get(journals.size() - 1));
+        assertTrue(Files.exists(other));
+    }
+
+    /**
+     * Test that a file that is not a journal is not replayed.
+     * @throws IOException When the file could not be written.
+     */
+    @Test
+    void notAJournalTest() throws IOException {
+        Files.write(file, new byte[GameJournal.RECORD_SIZE]);
+
+        assertThrows(IOException.class, () -> GameJournal.replay(file, event -> { }));
+    }
+}
@@ -0,0 +1,204 @@
+package journal;
+
+import handlers.CameraHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import room.Chest;
+import room.Room;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the GameRecovery class.
+ */
+class GameRecoveryTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    private static final long ROOM_ID = 7;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long STARTED = 60;
+    private static final long OPENED = 30;
+    private static final long TOLERANCE = TimeUnit.MILLISECONDS.toNanos(50);
+    private String directory;
+    private Room room;
+
+    /**
+     * Create the directory of the journals and a room with two chests.
+     * @throws IOException When the directory could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        final int duration = 60;
+        Path path = Files.createTempDirectory("journals");
+        path.toFile().deleteOnExit();
+        directory = path.toString();
+        room = new Room(ROOM_ID, 2, new ArrayList<>(), Arrays.asList(
+            new Chest(2, duration, duration), new Chest(1, duration, duration)), duration, 0);
+    }
+
+    /**
+     * Record a game that started a minute ago, in which the first chest was opened by its
+     * sections after two seconds and the second chest by the host after 30 seconds.
+     * @return The journal of the game, which is not closed.
+     * @throws IOException When the journal could not be created.
+     */
+    private GameJournal recordGame() throws IOException {
+        GameJournal journal = GameJournal.create(directory, ROOM_ID);
+        journal.getFile().toFile().deleteOnExit();
+        long begin = System.nanoTime() - STARTED * SECOND;
+        journal.record(JournalEvent.Type.GAME_STARTED, begin, 0, 0);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, begin + SECOND, 0, 0);
+        journal.record(JournalEvent.Type.ACTIVITY, begin + SECOND, 0, 2);
+        journal.record(JournalEvent.Type.SECTION_COMPLETED, begin + 2 * SECOND, 0, 0);
+        journal.record(JournalEvent.Type.CHEST_OPENED, begin + OPENED * SECOND, 0, 0);
+        journal.flush();
+        return journal;
+    }
+
+    /**
+     * Test that the state of the room, the times of the chests and the begin time are recovered.
+     * @throws IOException When the journal could not be read.
+     */
+    @Test
+    void recoverTest() throws IOException {
+        recordGame();
+        GameRecovery recovery = GameRecovery.find(directory, ROOM_ID);
+        assertNotNull(recovery);
+        assertEquals(3, recovery.getChanges().size());
+
+        CameraHandler cameraHandler = new CameraHandler();
+        recovery.recover(room, cameraHandler, null);
+        long begin = cameraHandler.getBeginTime();
+        assertEquals(2, room.getChestsOpened());
+        long elapsed = System.nanoTime() - begin;
+        assertTrue(elapsed > STARTED * SECOND - TOLERANCE && elapsed < (STARTED + 1) * SECOND);
+        Chest first = room.getChestList().get(0);
+        Chest second = room.getChestList().get(1);
+        assertEquals(2 * SECOND, first.getTimeFound() - begin, TOLERANCE);
+        assertEquals(first.getTimeFound(), second.getBeginTime());
+        assertEquals(OPENED * SECOND, second.getTimeFound() - begin, TOLERANCE);
+        assertEquals(CameraHandler.Activity.LOW, cameraHandler.getActive());
+    }
+
+    /**
+     * Test that the events of the recovered game are recorded in the new journal,
+     * so the game can be recovered again.
+     * @throws IOException When the journal could not be read or written.
+     */
+    @Test
+    void recordAgainTest() throws IOException {
+        final int events = 5;
+        GameJournal journal = recordGame();
+        GameRecovery recovery = GameRecovery.find(directory, ROOM_ID);
+        GameJournal next = new GameJournal(Files.createTempFile("next", ".journal"));
+        next.getFile().toFile().deleteOnExit();
+        recovery.recover(room, new CameraHandler(), next);
+        next.close();
+        journal.close();
+
+        assertEquals(events + 1, GameJournal.replay(next.getFile(), event -> { }));
+    }
+
+    /**
+     * Record a game in which all chests are opened, without closing its journal.
+     * @return The journal of the game.
+     * @throws IOException When the journal could not be created.
+     */
+    private GameJournal openAllChests() throws IOException {
+        GameJournal journal = GameJournal.create(directory, ROOM_ID);
+        journal.getFile().toFile().deleteOnExit();
+        room.setJournal(journal);
+        long begin = System.nanoTime();
+        journal.record(JournalEvent.Type.GAME_STARTED, begin, 0, 0);
+        for (int i = 0; i < room.getChestList().size(); i++) {
+            room.updateRoom(begin);
+            room.setNextChestOpened(System.nanoTime());
+        }
+        room.updateRoom(begin);
+        room.updateRoom(begin);
+        return journal;
+    }
+
+    /**
+     * Count the end events in a journal.
+     * @param journal The journal.
+     * @return The amount of GAME_ENDED events.
+     * @throws IOException When the journal could not be read.
+     */
+    private static int countEnded(final GameJournal journal) throws IOException {
+        int[] ended = new int[1];
+        GameJournal.replay(journal.getFile(), event -> {
+            if (event.getType() == JournalEvent.Type.GAME_ENDED) {
+                ended[0]++;
+            }
+        });
+        return ended[0];
+    }
+
+    /**
+     * Test that the end of the game is recorded once when all chests are opened,
+     * so the game is not recovered although its journal was not closed,
+     * and that closing the journal does not record the end again.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void allChestsOpenedTest() throws IOException {
+        GameJournal journal = openAllChests();
+        journal.flush();
+
+        assertNull(GameRecovery.find(directory, ROOM_ID));
+        assertEquals(1, countEnded(journal));
+        journal.close();
+        assertEquals(1, countEnded(journal));
+    }
+
+    /**
+     * Test that a game of which a chest is reopened after all chests were opened is recovered,
+     * and that closing its journal ends it again.
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    void reopenedTest() throws IOException {
+        GameJournal journal = openAllChests();
+        room.setChestSectionsCompletedTill(0);
+        room.updateRoom(System.nanoTime());
+        journal.flush();
+
+        assertNotNull(GameRecovery.find(directory, ROOM_ID));
+        journal.close();
+        assertNull(GameRecovery.find(directory, ROOM_ID));
+        assertEquals(2, countEnded(journal));
+    }
+
+    /**
+     * Test that a game that ended is not recovered, nor a room without journals.
+     * @throws IOException When the journals could not be read or written.
+     */
+    @Test
+    void finishedTest() throws IOException {
+        recordGame().close();
+        assertNull(GameRecovery.find(directory, ROOM_ID));
+        assertNull(GameRecovery.find(directory, ROOM_ID + 1));
+        assertNull(GameRecovery.find(directory + File.separator + "none", ROOM_ID));
+    }
+}
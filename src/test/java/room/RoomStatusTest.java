@@ -0,0 +1,79 @@
+package room;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import handlers.CameraHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the RoomStatus class.
+ */
+class RoomStatusTest {
+
+    private static final long TARGET_TIME = 120;
+    private static final long WARNING_TIME = 60;
+    private static final long PLAYED = 30;
+
+    /**
+     * Create a room with two chests.
+     * @return The room.
+     */
+    private Room createRoom() {
+        return new Room(2, 2, new ArrayList<>(), new ArrayList<>(Arrays.asList(
+            new Chest(1, TARGET_TIME, WARNING_TIME), new Chest(2, TARGET_TIME, WARNING_TIME))),
+            (int) TARGET_TIME, 0);
+    }
+
+    /**
+     * Test that the snapshot holds the state of the room and its chests.
+     * @throws ParseException when the snapshot is no JSON
+     */
+    @Test
+    void publishTest() throws ParseException {
+        Room room = createRoom();
+        assertNull(room.getStatus());
+        long beginTime = System.nanoTime() - TimeUnit.SECONDS.toNanos(PLAYED);
+        room.updateRoom(beginTime);
+        room.publishStatus(beginTime, CameraHandler.Activity.LOW);
+
+        RoomStatus status = room.getStatus();
+        assertTrue(status.isStarted());
+        assertEquals(CameraHandler.Activity.LOW, status.getActivity());
+        JSONObject json = (JSONObject) new JSONParser().parse(status.toJson());
+        assertEquals(2L, json.get("roomId"));
+        assertEquals("low", json.get("activity"));
+        assertTrue((long) json.get("elapsed") >= PLAYED);
+        JSONObject chest = (JSONObject) ((JSONArray) json.get("chests")).get(0);
+        assertEquals("to_be_opened", chest.get("state"));
+        assertTrue((long) chest.get("elapsed") >= PLAYED);
+    }
+
+    /**
+     * Test that a snapshot does not change with the room, only a new snapshot does.
+     */
+    @Test
+    void immutableTest() {
+        Room room = createRoom();
+        room.publishStatus(-1, CameraHandler.Activity.ZERO);
+        RoomStatus status = room.getStatus();
+        assertFalse(status.isStarted());
+
+        room.updateRoom(System.nanoTime());
+        room.setNextChestOpened(System.nanoTime());
+        room.updateRoom(System.nanoTime());
+        assertEquals(0, status.getChestsOpened());
+
+        room.publishStatus(System.nanoTime(), CameraHandler.Activity.LOW);
+        assertEquals(1, room.getStatus().getChestsOpened());
+    }
+}
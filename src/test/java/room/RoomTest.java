@@ -7,9 +7,13 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for the class Room.
@@ -160,4 +164,65 @@ public class RoomTest {
         assertEquals(1, room.getChestsOpened());
     }
 
+    /**
+     * Test that sections completed by several threads at the same time are all counted.
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void concurrentSectionsTest() throws InterruptedException {
+        final int sections = 100;
+        final int threads = 8;
+        final int calls = 10;
+        chestList.add(new Chest(sections, TARGETTIME, WARNINGTIME));
+        room = new Room(0, 2, cameraLinks, chestList, 1, 1);
+        room.updateRoom();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads * calls; i++) {
+            executor.submit(() -> {
+                room.setNextSectionOpened();
+                room.updateRoom();
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(threads * calls, room.calculateSubsectionsDone());
+    }
+
+    /**
+     * Test that changes within a transition are applied right away.
+     */
+    @Test
+    void nestedTransitionTest() {
+        chestList.add(new Chest(1, TARGETTIME, WARNINGTIME));
+        room = new Room(0, 2, cameraLinks, chestList, 1, 1);
+        room.updateRoom();
+
+        int opened = room.transition(() -> {
+            room.setNextChestOpened(0);
+            return room.getChestsOpened();
+        });
+        assertEquals(1, opened);
+    }
+
+    /**
+     * Test that the snapshot of the chests does not change with the chests.
+     */
+    @Test
+    void chestSnapshotTest() {
+        final int sections = 2;
+        chestList.add(new Chest(sections, TARGETTIME, WARNINGTIME));
+        room = new Room(0, 2, cameraLinks, chestList, 1, 1);
+        room.updateRoom();
+        room.setNextSectionOpened();
+
+        List<Chest> snapshot = room.getChestSnapshot();
+        room.setNextChestOpened(0);
+        room.updateRoom();
+
+        assertEquals(1, snapshot.size());
+        assertEquals(Chest.Status.TO_BE_OPENED, snapshot.get(0).getChestState());
+        assertEquals(1, snapshot.get(0).countSubsectionsCompleted());
+        assertEquals(Chest.Status.OPENED, chestList.get(0).getChestState());
+    }
 }
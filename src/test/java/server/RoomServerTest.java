@@ -0,0 +1,87 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import api.APIHandler;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Scanner;
+import journal.GameJournal;
+import journal.GameRecovery;
+import journal.JournalEvent;
+import org.junit.jupiter.api.Test;
+import room.Room;
+
+/**
+ * Tests for the RoomServer class.
+ */
+class RoomServerTest {
+
+    static {
+        // These should be at the start of the application,
+        // so if the main changes this should be included.
+        // Load OpenCV library.
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_ffmpeg341_64.dll");
+        System.load(System.getProperty("user.dir")
+            + File.separator + "libs" + File.separator + "opencv_java341.dll");
+    }
+
+    /**
+     * Test that the metrics of every room are served under its id.
+     * @throws IOException exception
+     */
+    @Test
+    void metricsPerRoomTest() throws IOException {
+        Room first = new Room(1, 2, Collections.singletonList("files/postit.mov"),
+            new ArrayList<>(), 0, 0);
+        Room second = new Room(2, 2, Collections.singletonList("files/webcast.mov"),
+            new ArrayList<>(), 0, 0);
+        RoomServer server = new RoomServer(Arrays.asList(first, second),
+            APIHandler.DEFAULT_PORT, 2);
+        server.start();
+        assertEquals(2, server.getMonitors().size());
+
+        for (long id = 1; id <= 2; id++) {
+            HttpURLConnection http = (HttpURLConnection) new URL("http://localhost:"
+                + APIHandler.DEFAULT_PORT + "/rooms/" + id + "/metrics").openConnection();
+            http.connect();
+            assertEquals(HttpURLConnection.HTTP_OK, http.getResponseCode());
+            String body = new Scanner(http.getInputStream()).useDelimiter("\\A").next();
+            assertTrue(body.contains("\"capture\""));
+        }
+
+        server.stop();
+        assertTrue(server.getMonitors().isEmpty());
+    }
+
+    /**
+     * Test that a game that started is not recovered after the server is stopped,
+     * which is what the shutdown hook does when the process is stopped.
+     * @throws IOException exception
+     */
+    @Test
+    void stopEndsGameTest() throws IOException {
+        final long roomId = 1001;
+        Room room = new Room(roomId, 2, new ArrayList<>(), new ArrayList<>(), 0, 0);
+        RoomServer server = new RoomServer(Collections.singletonList(room),
+            APIHandler.DEFAULT_PORT, 1);
+        GameJournal journal = room.getJournal();
+        journal.getFile().toFile().deleteOnExit();
+        journal.record(JournalEvent.Type.GAME_STARTED, 0, 0);
+        journal.flush();
+        assertNotNull(GameRecovery.find(GameJournal.DIRECTORY, roomId));
+
+        server.stop();
+        server.stop();
+        assertNull(GameRecovery.find(GameJournal.DIRECTORY, roomId));
+    }
+}